@@ -217,7 +217,7 @@ begin;
 alter table :dst_schema.case_event
 drop constraint if exists case_event_case_data_id_fkey;
 
-drop index if exists :dst_schema.idx_case_event_case_data_revision_unique;
+drop index if exists :dst_schema.idx_case_event_case_data_revision_unique_id;
 
 alter table :dst_schema.case_event
 disable trigger user;
@@ -521,8 +521,8 @@ restore_constraints() {
   log "Restoring event revision unique index and FK..."
 
   if psql_dst <<'SQL'
-create unique index if not exists idx_case_event_case_data_revision_unique
-on :dst_schema.case_event (case_data_id, case_revision);
+create unique index if not exists idx_case_event_case_data_revision_unique_id
+on :dst_schema.case_event (case_data_id, case_revision) include (id);
 
 alter table :dst_schema.case_event
 add constraint case_event_case_data_id_fkey
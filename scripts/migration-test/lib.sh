@@ -396,7 +396,7 @@ select count(*)
 from pg_indexes
 where schemaname = 'ccd'
   and tablename = 'case_event'
-  and indexname = 'idx_case_event_case_data_revision_unique';
+  and indexname = 'idx_case_event_case_data_revision_unique_id';
 SQL
 )"
 
@@ -0,0 +1,76 @@
+package uk.gov.hmcts.ccd.sdk;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import uk.gov.hmcts.ccd.sdk.api.HasRole;
+import uk.gov.hmcts.ccd.sdk.config.CcdCaseDataMapperConfiguration;
+import uk.gov.hmcts.ccd.sdk.type.Document;
+import uk.gov.hmcts.ccd.sdk.type.ListValue;
+
+/**
+ * A minimal case type shared by the benchmarks, shaped like a typical service's case data: a few top level fields,
+ * global search fields and a large collection of documents.
+ */
+public final class BenchmarkCase {
+  public static final String CASE_TYPE = "BenchmarkCase";
+
+  private BenchmarkCase() {
+  }
+
+  /**
+   * The case data mapper as the runtime configures it on top of Spring Boot's defaults.
+   */
+  public static ObjectMapper mapper() {
+    ObjectMapper base = JsonMapper.builder()
+        .findAndAddModules()
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+    return new CcdCaseDataMapperConfiguration().ccdCaseDataObjectMapper(base);
+  }
+
+  public static ResolvedConfigRegistry registry() {
+    var config = new ResolvedCCDConfig<>(CaseData.class, State.class, Role.class, Map.of(),
+        ImmutableSet.copyOf(State.values()));
+    config.caseType = CASE_TYPE;
+    return new ResolvedConfigRegistry(List.of(config));
+  }
+
+  @Data
+  public static class CaseData {
+    private String applicantName;
+    private String applicantEmail;
+    private String caseNameHmctsInternal;
+    private Map<String, String> caseManagementLocation;
+    private List<ListValue<Correspondence>> correspondence;
+  }
+
+  @Data
+  public static class Correspondence {
+    private String subject;
+    private String body;
+    private String sentBy;
+    private Document attachment;
+  }
+
+  public enum State {
+    Submitted
+  }
+
+  @Getter
+  @RequiredArgsConstructor
+  public enum Role implements HasRole {
+    CASEWORKER("caseworker-benchmark", "CRU");
+
+    private final String role;
+    private final String caseTypePermissions;
+  }
+}
@@ -0,0 +1,89 @@
+package uk.gov.hmcts.ccd.sdk;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Map;
+import java.util.UUID;
+import lombok.SneakyThrows;
+
+/**
+ * Generated case data of roughly a requested serialised size.
+ *
+ * <p>The size is reached by growing the correspondence collection; one item in ten carries a newly uploaded document
+ * with a hash token, and {@link #existing()} is the same case without those items, so the pair looks like the data
+ * before and after an event that added documents.
+ *
+ * @param data the case data as the runtime holds it
+ * @param tree the case data as a JSON tree
+ * @param existing the case data before the new documents were added
+ * @param json the serialised case data
+ */
+public record CasePayload(Map<String, JsonNode> data, ObjectNode tree, ObjectNode existing, String json) {
+  private static final TypeReference<Map<String, JsonNode>> JSON_NODE_MAP = new TypeReference<>() {};
+  private static final int NEW_DOCUMENT_EVERY = 10;
+
+  /**
+   * Generates a payload.
+   *
+   * @param size the approximate serialised size, for example 10KB, 100KB or 1MB
+   */
+  @SneakyThrows
+  public static CasePayload generate(ObjectMapper mapper, String size) {
+    int targetBytes = parseSize(size);
+    ObjectNode tree = mapper.createObjectNode()
+        .put("applicantName", "Jane Smith")
+        .put("applicantEmail", "jane.smith@example.com")
+        .put("caseNameHmctsInternal", "Smith v Jones");
+    tree.putObject("caseManagementLocation").put("region", "1").put("baseLocation", "20262");
+    tree.putObject("SearchCriteria").putArray("SearchParties").addObject()
+        .put("id", new UUID(0, 0).toString())
+        .putObject("value").put("Name", "Jane Smith");
+
+    int baseBytes = mapper.writeValueAsBytes(tree).length;
+    int itemBytes = mapper.writeValueAsBytes(item(mapper, 1)).length + 1;
+    int items = Math.max(NEW_DOCUMENT_EVERY, (targetBytes - baseBytes) / itemBytes);
+
+    ObjectNode existing = tree.deepCopy();
+    ArrayNode correspondence = tree.putArray("correspondence");
+    ArrayNode existingCorrespondence = existing.putArray("correspondence");
+    for (int i = 1; i <= items; i++) {
+      ObjectNode item = item(mapper, i);
+      correspondence.add(item);
+      if (i % NEW_DOCUMENT_EVERY != 0) {
+        existingCorrespondence.add(item.deepCopy());
+      }
+    }
+    return new CasePayload(mapper.convertValue(tree, JSON_NODE_MAP), tree, existing,
+        mapper.writeValueAsString(tree));
+  }
+
+  private static ObjectNode item(ObjectMapper mapper, int index) {
+    String documentId = new UUID(0, index).toString();
+    ObjectNode item = mapper.createObjectNode().put("id", new UUID(1, index).toString());
+    ObjectNode value = item.putObject("value")
+        .put("subject", "Correspondence " + index)
+        .put("body", ("Line " + index + " of the correspondence body. ").repeat(8))
+        .put("sentBy", "caseworker-" + index % 50 + "@example.com");
+    ObjectNode attachment = value.putObject("attachment")
+        .put("document_url", "http://dm-store:8080/documents/" + documentId)
+        .put("document_binary_url", "http://dm-store:8080/documents/" + documentId + "/binary")
+        .put("document_filename", "correspondence-" + index + ".pdf");
+    if (index % NEW_DOCUMENT_EVERY == 0) {
+      attachment.put("document_hash", "%064x".formatted(index));
+    }
+    return item;
+  }
+
+  private static int parseSize(String size) {
+    if (size.endsWith("MB")) {
+      return Integer.parseInt(size.substring(0, size.length() - 2)) * 1024 * 1024;
+    }
+    if (size.endsWith("KB")) {
+      return Integer.parseInt(size.substring(0, size.length() - 2)) * 1024;
+    }
+    throw new IllegalArgumentException("Payload size must be given in KB or MB: " + size);
+  }
+}
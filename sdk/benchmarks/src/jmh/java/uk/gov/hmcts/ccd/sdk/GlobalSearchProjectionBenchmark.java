@@ -0,0 +1,50 @@
+package uk.gov.hmcts.ccd.sdk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The ES indexer's global_search filtering of one claimed row.
+ */
+@State(Scope.Benchmark)
+public class GlobalSearchProjectionBenchmark {
+
+  @Param({"10KB", "100KB", "1MB"})
+  public String payloadSize;
+
+  private GlobalSearchProjection projection;
+  private byte[] row;
+
+  @Setup
+  public void setUp() throws IOException {
+    ObjectMapper mapper = BenchmarkCase.mapper();
+    CasePayload payload = CasePayload.generate(mapper, payloadSize);
+    var claimedRow = mapper.createObjectNode()
+        .put("reference", 1234567890123456L)
+        .put("case_revision", 7)
+        .put("case_type_id", BenchmarkCase.CASE_TYPE)
+        .put("index_id", "benchmarkcase_cases")
+        .put("created_date", "2026-01-01T10:00:00")
+        .put("jurisdiction", "TEST")
+        .put("id", 42)
+        .put("state", "Submitted")
+        .put("security_classification", "PUBLIC")
+        .put("last_state_modified_date", "2026-01-02T10:00:00")
+        .put("event_id", 99)
+        .put("last_modified", "2026-01-03T10:00:00");
+    claimedRow.putObject("supplementary_data").put("HMCTSServiceId", "ABA1");
+    claimedRow.set("data", payload.tree());
+    row = mapper.writeValueAsBytes(claimedRow);
+    projection = new GlobalSearchProjection(mapper.getFactory());
+  }
+
+  @Benchmark
+  public byte[] project() throws IOException {
+    return projection.project(row);
+  }
+}
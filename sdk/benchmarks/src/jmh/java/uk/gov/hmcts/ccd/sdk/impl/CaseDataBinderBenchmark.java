@@ -0,0 +1,36 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.hmcts.ccd.sdk.BenchmarkCase;
+import uk.gov.hmcts.ccd.sdk.CasePayload;
+
+/**
+ * Binding submitted case data to the case class, as every submit handler event does before calling the service.
+ */
+@State(Scope.Benchmark)
+public class CaseDataBinderBenchmark {
+
+  @Param({"10KB", "100KB", "1MB", "5MB"})
+  public String payloadSize;
+
+  private ObjectMapper mapper;
+  private Map<String, JsonNode> data;
+
+  @Setup
+  public void setUp() {
+    mapper = BenchmarkCase.mapper();
+    data = CasePayload.generate(mapper, payloadSize).data();
+  }
+
+  @Benchmark
+  public BenchmarkCase.CaseData read() {
+    return CaseDataBinder.read(mapper, data, BenchmarkCase.CaseData.class);
+  }
+}
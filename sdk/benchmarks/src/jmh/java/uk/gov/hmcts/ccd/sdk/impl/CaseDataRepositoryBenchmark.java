@@ -0,0 +1,67 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseDetails;
+import uk.gov.hmcts.ccd.sdk.BenchmarkCase;
+import uk.gov.hmcts.ccd.sdk.CasePayload;
+
+/**
+ * Decoding a loaded case_data row, dominated by parsing the data and supplementary_data JSON.
+ */
+@State(Scope.Benchmark)
+public class CaseDataRepositoryBenchmark {
+
+  @Param({"10KB", "100KB", "1MB"})
+  public String payloadSize;
+
+  private CaseDataRepository repository;
+  private ResultSet row;
+
+  @Setup
+  public void setUp() {
+    var mapper = BenchmarkCase.mapper();
+    CasePayload payload = CasePayload.generate(mapper, payloadSize);
+    repository = new CaseDataRepository(null, mapper, BenchmarkCase.registry());
+    LocalDateTime timestamp = LocalDateTime.of(2026, 1, 1, 10, 0);
+    row = resultSet(Map.ofEntries(
+        Map.entry("id", "42"),
+        Map.entry("reference", 1234567890123456L),
+        Map.entry("jurisdiction", "TEST"),
+        Map.entry("case_type_id", BenchmarkCase.CASE_TYPE),
+        Map.entry("state", "Submitted"),
+        Map.entry("version", 3),
+        Map.entry("created_date", timestamp),
+        Map.entry("last_modified", timestamp),
+        Map.entry("last_state_modified_date", timestamp),
+        Map.entry("case_data", payload.json()),
+        Map.entry("supplementary_data", "{\"HMCTSServiceId\":\"ABA1\"}"),
+        Map.entry("security_classification", "PUBLIC"),
+        Map.entry("case_revision", 7L)
+    ));
+  }
+
+  @Benchmark
+  public DecentralisedCaseDetails mapCaseDetails() throws SQLException {
+    return repository.mapCaseDetails(row);
+  }
+
+  /**
+   * A single-row result set serving the columns mapCaseDetails reads, so only the mapping is measured.
+   */
+  private static ResultSet resultSet(Map<String, Object> columns) {
+    return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+        (proxy, method, args) -> switch (method.getName()) {
+          case "getString", "getObject" -> columns.get((String) args[0]);
+          default -> throw new UnsupportedOperationException(method.getName());
+        });
+  }
+}
@@ -0,0 +1,88 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseDetails;
+import uk.gov.hmcts.ccd.domain.model.definition.CaseDetails;
+import uk.gov.hmcts.ccd.domain.model.definition.CaseTypeDefinition;
+import uk.gov.hmcts.ccd.sdk.BenchmarkCase;
+import uk.gov.hmcts.ccd.sdk.CasePayload;
+import uk.gov.hmcts.ccd.sdk.CaseView;
+import uk.gov.hmcts.ccd.sdk.CaseViewRequest;
+
+/**
+ * Projecting a loaded case: the blob to case class and back round trip plus global search population.
+ */
+@State(Scope.Benchmark)
+public class CaseProjectionServiceBenchmark {
+
+  @Param({"10KB", "100KB", "1MB"})
+  public String payloadSize;
+
+  private CaseProjectionService service;
+  private CasePayload payload;
+
+  @Setup
+  public void setUp() throws IOException {
+    ObjectMapper mapper = BenchmarkCase.mapper();
+    payload = CasePayload.generate(mapper, payloadSize);
+    CaseTypeDefinition definition = mapper.readValue("""
+        {
+          "id": "BenchmarkCase",
+          "searchParties": [
+            {"searchPartyName": "applicantName", "searchPartyEmailAddress": "applicantEmail"}
+          ],
+          "searchCriterias": [
+            {"otherCaseReference": "caseNameHmctsInternal"}
+          ]
+        }
+        """, CaseTypeDefinition.class);
+    var definitionRegistry = new DefinitionRegistry(mapper, "build/cftlib/definition-snapshots", false, false) {
+      @Override
+      Optional<CaseTypeDefinition> find(String caseTypeId) {
+        return Optional.of(definition);
+      }
+    };
+    service = new CaseProjectionService(null, mapper, List.of(new BlobCaseView()), BenchmarkCase.registry(),
+        definitionRegistry, new CaseSnapshotCache(mapper, false, 1, null));
+  }
+
+  @Benchmark
+  public DecentralisedCaseDetails applyProjection() {
+    // applyProjection replaces the data on the details it is given, so each invocation starts from fresh details.
+    var caseDetails = new CaseDetails();
+    caseDetails.setReference(1234567890123456L);
+    caseDetails.setCaseTypeId(BenchmarkCase.CASE_TYPE);
+    caseDetails.setState(BenchmarkCase.State.Submitted.name());
+    caseDetails.setData(payload.data());
+    caseDetails.setSupplementaryData(Map.of());
+    var raw = new DecentralisedCaseDetails();
+    raw.setCaseDetails(caseDetails);
+    return service.applyProjection(raw);
+  }
+
+  /**
+   * A legacy style view returning the deserialised blob unchanged.
+   */
+  static class BlobCaseView implements CaseView<BenchmarkCase.CaseData, BenchmarkCase.State> {
+    @Override
+    public Set<String> caseTypeIds() {
+      return Set.of(BenchmarkCase.CASE_TYPE);
+    }
+
+    @Override
+    public BenchmarkCase.CaseData getCase(CaseViewRequest<BenchmarkCase.State> request,
+                                          BenchmarkCase.CaseData blobCase) {
+      return blobCase;
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.hmcts.ccd.data.casedetails.SecurityClassification;
+import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseEvent;
+import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedEventDetails;
+import uk.gov.hmcts.ccd.domain.model.definition.CaseDetails;
+import uk.gov.hmcts.ccd.sdk.BenchmarkCase;
+import uk.gov.hmcts.ccd.sdk.CasePayload;
+
+/**
+ * Building the persisted snapshot of a legacy submission with {@code @External} fields filtered out.
+ */
+@State(Scope.Benchmark)
+public class LegacyCallbackSubmissionHandlerBenchmark {
+
+  @Param({"10KB", "100KB", "1MB", "5MB"})
+  public String payloadSize;
+
+  private LegacyCallbackSubmissionHandler handler;
+  private DecentralisedCaseEvent event;
+
+  @Setup
+  public void setUp() {
+    var mapper = BenchmarkCase.mapper();
+    CasePayload payload = CasePayload.generate(mapper, payloadSize);
+    handler = new LegacyCallbackSubmissionHandler(BenchmarkCase.registry(), null, mapper, null);
+
+    var caseDetails = new CaseDetails();
+    caseDetails.setReference(1234567890123456L);
+    caseDetails.setJurisdiction("TEST");
+    caseDetails.setCaseTypeId(BenchmarkCase.CASE_TYPE);
+    caseDetails.setState(BenchmarkCase.State.Submitted.name());
+    caseDetails.setSecurityClassification(SecurityClassification.PUBLIC);
+    caseDetails.setData(payload.data());
+    event = DecentralisedCaseEvent.builder()
+        .caseDetails(caseDetails)
+        .eventDetails(DecentralisedEventDetails.builder()
+            .caseType(BenchmarkCase.CASE_TYPE)
+            .eventId("update")
+            .build())
+        .build();
+  }
+
+  @Benchmark
+  public JsonNode snapshotWithFilteredFields() {
+    return handler.snapshotWithFilteredFields(event);
+  }
+
+  @Benchmark
+  public JsonNode snapshotOfCallbackData() {
+    return handler.snapshotWithFilteredFields(event, true);
+  }
+}
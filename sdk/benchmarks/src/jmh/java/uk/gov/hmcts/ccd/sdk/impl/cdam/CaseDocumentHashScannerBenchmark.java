@@ -0,0 +1,40 @@
+package uk.gov.hmcts.ccd.sdk.impl.cdam;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.hmcts.ccd.sdk.BenchmarkCase;
+import uk.gov.hmcts.ccd.sdk.CasePayload;
+import uk.gov.hmcts.reform.ccd.document.am.model.DocumentHashToken;
+
+/**
+ * Walking document-heavy case data for new document hash tokens, and stripping them before persistence.
+ */
+@State(Scope.Benchmark)
+public class CaseDocumentHashScannerBenchmark {
+
+  @Param({"10KB", "100KB", "1MB"})
+  public String payloadSize;
+
+  private final CaseDocumentHashScanner scanner = new CaseDocumentHashScanner();
+  private CasePayload payload;
+
+  @Setup
+  public void setUp() {
+    payload = CasePayload.generate(BenchmarkCase.mapper(), payloadSize);
+  }
+
+  @Benchmark
+  public List<DocumentHashToken> findNewDocumentHashTokens() {
+    return scanner.findNewDocumentHashTokens(payload.existing(), payload.tree());
+  }
+
+  @Benchmark
+  public JsonNode stripDocumentHashes() {
+    return scanner.stripDocumentHashes(payload.tree());
+  }
+}
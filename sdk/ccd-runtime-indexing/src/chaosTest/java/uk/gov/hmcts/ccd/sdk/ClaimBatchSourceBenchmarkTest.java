@@ -0,0 +1,156 @@
+package uk.gov.hmcts.ccd.sdk;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the claim query for each {@link DecentralisedESIndexer.IndexingSource} against a large seeded
+ * ccd.case_event table.
+ *
+ * <p>Opt-in, for example:
+ * {@code ./gradlew :ccd-runtime-indexing:chaosTest --tests '*ClaimBatchSourceBenchmarkTest'
+ * -Dccd.indexing.perf.events=10000000}
+ */
+@Testcontainers
+@EnabledIfSystemProperty(named = ClaimBatchSourceBenchmarkTest.EVENTS, matches = "\\d+")
+class ClaimBatchSourceBenchmarkTest {
+  static final String EVENTS = "ccd.indexing.perf.events";
+  private static final String EVENTS_PER_CASE = "ccd.indexing.perf.events-per-case";
+  private static final String CLAIMS = "ccd.indexing.perf.claims";
+  private static final int BATCH_SIZE = 100;
+  private static final int WARMUP_CLAIMS = 20;
+  // One in ten queued revisions is behind ccd.case_data, exercising the case-data source's fallback.
+  private static final int STALE_EVERY = 10;
+
+  @Container
+  private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine")
+      .withDatabaseName("ccd");
+
+  private static JdbcTemplate jdbc;
+  private static TransactionTemplate transactions;
+  private static long caseCount;
+
+  @BeforeAll
+  static void seed() {
+    var dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+        POSTGRES.getPassword());
+    Properties flywayProperties = new Properties();
+    flywayProperties.setProperty("flyway.postgresql.transactional.lock", "false");
+    Flyway.configure()
+        .configuration(flywayProperties)
+        .dataSource(dataSource)
+        .locations("classpath:dataruntime-db/migration")
+        .schemas("ccd")
+        .load()
+        .migrate();
+    jdbc = new JdbcTemplate(dataSource);
+    transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+    long events = Long.getLong(EVENTS);
+    int eventsPerCase = Integer.getInteger(EVENTS_PER_CASE, 10);
+    caseCount = Math.max(1, events / eventsPerCase);
+    jdbc.execute((ConnectionCallback<Void>) connection -> {
+      try (Statement statement = connection.createStatement()) {
+        // Bypass the revision and queue triggers; revisions are seeded explicitly.
+        statement.execute("set session_replication_role = replica");
+        statement.execute("""
+            insert into ccd.case_data (id, reference, version, jurisdiction, case_type_id, state, data,
+                supplementary_data, security_classification, created_date, last_modified,
+                last_state_modified_date, case_revision)
+            select g, 1000000000000000 + g, 1, 'TEST', 'PerfCase', 'Submitted',
+                jsonb_build_object('counter', g, 'revision', %1$d, 'padding', repeat('x', 2000)),
+                '{}'::jsonb, 'PUBLIC', now(), now(), now(), %1$d
+            from generate_series(1, %2$d) g
+            """.formatted(eventsPerCase, caseCount));
+        statement.execute("""
+            insert into ccd.case_event (case_data_id, case_type_version, event_id, summary, description, user_id,
+                case_type_id, state_id, data, user_first_name, user_last_name, event_name, state_name,
+                security_classification, version, case_revision, idempotency_key)
+            select c, 1, 'perf-update', 'Perf', 'Perf', 'perf-user', 'PerfCase', 'Submitted',
+                jsonb_build_object('counter', c, 'revision', r, 'padding', repeat('x', 2000)),
+                'Perf', 'User', 'Perf update', 'Submitted', 'PUBLIC', 1, r, gen_random_uuid()
+            from generate_series(1, %d) c, generate_series(1, %d) r
+            """.formatted(caseCount, eventsPerCase));
+        statement.execute("set session_replication_role = origin");
+        statement.execute("vacuum analyze ccd.case_data");
+        statement.execute("vacuum analyze ccd.case_event");
+      }
+      return null;
+    });
+  }
+
+  @Test
+  void caseDataSourceClaimsMatchCaseEventSource() {
+    enqueue(BATCH_SIZE);
+    List<String> caseEvent = claimInRolledBackTransaction(DecentralisedESIndexer.IndexingSource.CASE_EVENT);
+    List<String> caseData = claimInRolledBackTransaction(DecentralisedESIndexer.IndexingSource.CASE_DATA);
+
+    assertThat(caseData).hasSize(BATCH_SIZE).containsExactlyInAnyOrderElementsOf(caseEvent);
+  }
+
+  @Test
+  void reportsClaimLatencyPerSource() {
+    int claims = Integer.getInteger(CLAIMS, 200);
+    for (var source : DecentralisedESIndexer.IndexingSource.values()) {
+      String sql = DecentralisedESIndexer.claimBatchSql(source);
+      enqueue((WARMUP_CLAIMS + claims) * BATCH_SIZE);
+      for (int i = 0; i < WARMUP_CLAIMS; i++) {
+        claimAndComplete(sql);
+      }
+      long started = System.nanoTime();
+      for (int i = 0; i < claims; i++) {
+        assertThat(claimAndComplete(sql)).isEqualTo(BATCH_SIZE);
+      }
+      double millisPerClaim = (System.nanoTime() - started) / 1_000_000.0 / claims;
+      System.out.printf("%s source: %,d cases, %d cases per claim, %.2f ms per claim%n",
+          source, caseCount, BATCH_SIZE, millisPerClaim);
+    }
+  }
+
+  private void enqueue(int queued) {
+    jdbc.execute("truncate table ccd.es_queue");
+    jdbc.update("""
+        insert into ccd.es_queue (reference, case_revision, enqueued_at)
+        select cd.reference,
+               case when cd.id % ? = 0 then cd.case_revision - 1 else cd.case_revision end,
+               now() + (row_number() over () * interval '1 microsecond')
+        from ccd.case_data cd
+        order by random()
+        limit ?
+        """, STALE_EVERY, queued);
+  }
+
+  private int claimAndComplete(String sql) {
+    return transactions.execute(status -> {
+      UUID lockToken = UUID.randomUUID();
+      int claimed = jdbc.query(sql, (rs, rowNum) -> rs.getBytes("row"), BATCH_SIZE, 30, lockToken).size();
+      jdbc.update("delete from ccd.es_queue where lock_token = ?", lockToken);
+      return claimed;
+    });
+  }
+
+  private List<String> claimInRolledBackTransaction(DecentralisedESIndexer.IndexingSource source) {
+    return transactions.execute(status -> {
+      status.setRollbackOnly();
+      return jdbc.query(DecentralisedESIndexer.claimBatchSql(source),
+          (rs, rowNum) -> rs.getLong("reference") + ":" + rs.getLong("event_id") + ":" + rs.getString("row"),
+          BATCH_SIZE, 30, UUID.randomUUID());
+    });
+  }
+}
@@ -2,6 +2,8 @@ package uk.gov.hmcts.ccd.sdk;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -10,6 +12,7 @@ import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -28,6 +31,7 @@ import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration
 import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -139,6 +143,32 @@ class DecentralisedESIndexerChaosTest {
     assertQueueEventuallyEmpty();
   }
 
+  @Test
+  void workerPoolDrainsTheQueueWithoutLosingUpdates() {
+    context = startApplication(Map.of(
+        "ccd.sdk.indexing.worker-count", "4",
+        "ccd.sdk.indexing.batch-size", "10"));
+    resetState();
+
+    for (long caseId = 4101; caseId <= 4300; caseId++) {
+      commitCaseRevision(caseId, caseId, CASE_TYPE, 1, "worker-pool-initial-" + caseId);
+      commitCaseRevision(caseId, caseId, CASE_TYPE, 2, "worker-pool-latest-" + caseId);
+    }
+
+    awaitCohortIndexed(4101, 4300, 2);
+    assertQueueEventuallyEmpty();
+
+    MeterRegistry registry = context.getBean(MeterRegistry.class);
+    // Every worker's counters are registered up front, so only a non-zero count shows that a worker took part.
+    assertThat(registry.find("ccd.indexing.claimed.cases").counters())
+        .filteredOn(counter -> counter.count() > 0)
+        .hasSizeGreaterThan(1);
+    double claimedCases = registry.find("ccd.indexing.claimed.cases").counters().stream()
+        .mapToDouble(counter -> counter.count())
+        .sum();
+    assertThat(claimedCases).isGreaterThanOrEqualTo(200);
+  }
+
   @Test
   void concurrentCommittedWritersEventuallyIndexLatestRevision() throws Exception {
     context = startApplication();
@@ -425,19 +455,25 @@ class DecentralisedESIndexerChaosTest {
   }
 
   private ConfigurableApplicationContext startApplication() {
+    return startApplication(Map.of());
+  }
+
+  private ConfigurableApplicationContext startApplication(Map<String, Object> overrides) {
+    Map<String, Object> properties = new HashMap<>(Map.ofEntries(
+        entry("spring.datasource.url", POSTGRES.getJdbcUrl()),
+        entry("spring.datasource.username", POSTGRES.getUsername()),
+        entry("spring.datasource.password", POSTGRES.getPassword()),
+        entry("spring.datasource.driver-class-name", POSTGRES.getDriverClassName()),
+        entry("ELASTIC_SEARCH_HOSTS", elasticsearchProxyUrl()),
+        entry("ccd.sdk.indexing.elasticsearch.connect-timeout-ms", "500"),
+        entry("ccd.sdk.indexing.elasticsearch.socket-timeout-ms", "500"),
+        entry("ccd.sdk.indexing.queue-lock-seconds", "1"),
+        entry("spring.main.banner-mode", "off"),
+        entry("spring.main.web-application-type", "none")
+    ));
+    properties.putAll(overrides);
     SpringApplication application = new SpringApplicationBuilder(ChaosApplication.class)
-        .properties(Map.ofEntries(
-            entry("spring.datasource.url", POSTGRES.getJdbcUrl()),
-            entry("spring.datasource.username", POSTGRES.getUsername()),
-            entry("spring.datasource.password", POSTGRES.getPassword()),
-            entry("spring.datasource.driver-class-name", POSTGRES.getDriverClassName()),
-            entry("ELASTIC_SEARCH_HOSTS", elasticsearchProxyUrl()),
-            entry("ccd.sdk.indexing.elasticsearch.connect-timeout-ms", "500"),
-            entry("ccd.sdk.indexing.elasticsearch.socket-timeout-ms", "500"),
-            entry("ccd.sdk.indexing.queue-lock-seconds", "1"),
-            entry("spring.main.banner-mode", "off"),
-            entry("spring.main.web-application-type", "none")
-        ))
+        .properties(properties)
         .build();
     return application.run();
   }
@@ -794,5 +830,9 @@ class DecentralisedESIndexerChaosTest {
   })
   @Import({CaseReindexingService.class, DecentralisedDataConfiguration.class, DecentralisedESIndexer.class})
   static class ChaosApplication {
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
   }
 }
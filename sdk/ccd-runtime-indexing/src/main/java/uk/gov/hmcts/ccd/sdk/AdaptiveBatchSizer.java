@@ -0,0 +1,82 @@
+package uk.gov.hmcts.ccd.sdk;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses how many queued cases the ES indexer claims per batch.
+ *
+ * <p>When disabled the configured {@code ccd.sdk.indexing.batch-size} is always used. When enabled the size grows by
+ * an eighth while full batches complete comfortably within the latency target, halves when Elasticsearch rejects
+ * work (HTTP 429) and shrinks by a quarter when bulk latency exceeds the target. Growth is gentler than either cut,
+ * so a size that overshoots is pulled back faster than it climbed. Independently of latency, the size is
+ * capped so that a batch's serialised bulk body stays within the byte target at the observed bytes per case.
+ */
+final class AdaptiveBatchSizer {
+  static final String PREFIX = "ccd.sdk.indexing.adaptive-batch";
+
+  private final boolean enabled;
+  private final int minBatchSize;
+  private final int maxBatchSize;
+  private final long targetBulkBytes;
+  private final long targetBulkLatencyNanos;
+  private volatile int current;
+
+  AdaptiveBatchSizer(boolean enabled, int initialBatchSize, int minBatchSize, int maxBatchSize,
+                     long targetBulkBytes, long targetBulkLatencyMs) {
+    if (minBatchSize < 1) {
+      throw new IllegalArgumentException(PREFIX + ".min-batch-size must be greater than zero");
+    }
+    if (maxBatchSize < minBatchSize) {
+      throw new IllegalArgumentException(PREFIX + ".max-batch-size must not be less than min-batch-size");
+    }
+    if (targetBulkBytes < 1) {
+      throw new IllegalArgumentException(PREFIX + ".target-bulk-bytes must be greater than zero");
+    }
+    if (targetBulkLatencyMs < 1) {
+      throw new IllegalArgumentException(PREFIX + ".target-bulk-latency-ms must be greater than zero");
+    }
+    this.enabled = enabled;
+    this.minBatchSize = minBatchSize;
+    this.maxBatchSize = maxBatchSize;
+    this.targetBulkBytes = targetBulkBytes;
+    this.targetBulkLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetBulkLatencyMs);
+    this.current = enabled ? clamp(initialBatchSize) : initialBatchSize;
+  }
+
+  int current() {
+    return current;
+  }
+
+  /**
+   * Feeds back the outcome of one bulk request.
+   *
+   * @param claimLimit the batch size the cases were claimed with
+   * @param claimedCases the number of cases actually claimed
+   * @param bulkBytes the serialised size of the bulk documents
+   * @param latencyNanos the bulk request latency
+   * @param rejected whether Elasticsearch rejected the request or any of its items with HTTP 429
+   */
+  synchronized void record(int claimLimit, int claimedCases, long bulkBytes, long latencyNanos, boolean rejected) {
+    if (!enabled) {
+      return;
+    }
+    long next = current;
+    if (rejected) {
+      next = current / 2;
+    } else if (latencyNanos > targetBulkLatencyNanos) {
+      next = current * 3L / 4;
+    } else if (claimedCases == claimLimit && latencyNanos < targetBulkLatencyNanos / 2) {
+      // Only a full batch shows that the queue could have supplied a larger one.
+      next = current + Math.max(1, current / 8);
+    }
+    if (claimedCases > 0 && bulkBytes > 0) {
+      long bytesPerCase = Math.max(1, (bulkBytes + claimedCases - 1) / claimedCases);
+      next = Math.min(next, targetBulkBytes / bytesPerCase);
+    }
+    current = clamp(next);
+  }
+
+  private int clamp(long size) {
+    return (int) Math.max(minBatchSize, Math.min(maxBatchSize, size));
+  }
+}
@@ -1,9 +1,10 @@
 package uk.gov.hmcts.ccd.sdk;
 
-import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch._types.ErrorCause;
 import co.elastic.clients.elasticsearch._types.Time;
 import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
 import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
 import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
@@ -13,20 +14,23 @@ import co.elastic.clients.transport.rest5_client.low_level.Node;
 import co.elastic.clients.transport.rest5_client.low_level.Rest5Client;
 import co.elastic.clients.util.BinaryData;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.sql.DataSource;
@@ -36,6 +40,7 @@ import org.apache.hc.core5.util.Timeout;
 import org.postgresql.PGConnection;
 import org.postgresql.PGNotification;
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -60,20 +65,46 @@ class DecentralisedESIndexer implements SmartLifecycle, DisposableBean {
     RETRYABLE
   }
 
+  enum IndexingSource {
+    // Index the rendered ccd.case_event.data snapshot, which is always the CaseView projection.
+    CASE_EVENT,
+    // Index ccd.case_data.data when it is at the queued revision, falling back to the event snapshot otherwise.
+    // Only correct where the CaseView returns ccd.case_data.data unchanged.
+    CASE_DATA;
+
+    static IndexingSource fromProperty(String value) {
+      return switch (value.trim()) {
+        case "case-event" -> CASE_EVENT;
+        case "case-data" -> CASE_DATA;
+        default -> throw new IllegalArgumentException(
+            "ccd.sdk.indexing.source must be case-event or case-data but was " + value);
+      };
+    }
+  }
+
   private final DataSource dataSource;
   private final JdbcTemplate jdbcTemplate;
   private final TransactionTemplate transactionTemplate;
   private final AtomicBoolean terminated = new AtomicBoolean(false);
   private final AtomicBoolean running = new AtomicBoolean(false);
+  private final ExecutorService listenerExecutor;
   private final ExecutorService workerExecutor;
+  private final ExecutorService completionExecutor;
+  // Wake-up signal shared by the worker pool; holds at most one permit so bursts of notifications collapse.
+  private final Semaphore wakeups = new Semaphore(0);
+  private final IndexerMetrics metrics;
   private final ElasticsearchTransport transport;
-  private final ElasticsearchClient client;
+  private final ElasticsearchAsyncClient client;
   private final ObjectMapper mapper = new ObjectMapper();
+  private final GlobalSearchProjection globalSearchProjection = new GlobalSearchProjection(mapper.getFactory());
   private final int queueLockSeconds;
-  private final int batchSize;
+  private final AdaptiveBatchSizer batchSizer;
   private final int drainDelayMs;
   private final int pollIntervalMs;
+  private final int workerCount;
+  private final int pipelineDepth;
   private final String bulkTimeout;
+  private final String claimBatchSql;
 
   @Autowired
   public DecentralisedESIndexer(DataSource dataSource,
@@ -94,15 +125,35 @@ class DecentralisedESIndexer implements SmartLifecycle, DisposableBean {
                                 @Value("${ccd.sdk.decentralised.poll-interval-ms:10000}")
                                 int pollIntervalMs,
                                 @Value("${ccd.sdk.indexing.bulk-timeout:1m}")
-                                String bulkTimeout) {
+                                String bulkTimeout,
+                                @Value("${ccd.sdk.indexing.worker-count:1}")
+                                int workerCount,
+                                @Value("${ccd.sdk.indexing.pipeline-depth:3}")
+                                int pipelineDepth,
+                                @Value("${ccd.sdk.indexing.adaptive-batch.enabled:false}")
+                                boolean adaptiveBatchEnabled,
+                                @Value("${ccd.sdk.indexing.adaptive-batch.min-batch-size:1}")
+                                int minBatchSize,
+                                @Value("${ccd.sdk.indexing.adaptive-batch.max-batch-size:500}")
+                                int maxBatchSize,
+                                @Value("${ccd.sdk.indexing.adaptive-batch.target-bulk-bytes:5242880}")
+                                long targetBulkBytes,
+                                @Value("${ccd.sdk.indexing.adaptive-batch.target-bulk-latency-ms:1000}")
+                                long targetBulkLatencyMs,
+                                @Value("${ccd.sdk.indexing.source:case-event}")
+                                String source,
+                                @Value("${spring.threads.virtual.enabled:false}")
+                                boolean virtualThreads,
+                                ObjectProvider<MeterRegistry> meterRegistry) {
     this.dataSource = dataSource;
     this.jdbcTemplate = jdbcTemplate;
     this.transactionTemplate = transactionTemplate;
     this.queueLockSeconds = queueLockSeconds;
-    this.batchSize = batchSize;
     this.drainDelayMs = drainDelayMs;
     this.pollIntervalMs = pollIntervalMs;
     this.bulkTimeout = bulkTimeout;
+    this.workerCount = workerCount;
+    this.pipelineDepth = pipelineDepth;
     if (batchSize < 1) {
       throw new IllegalArgumentException("ccd.sdk.indexing.batch-size must be greater than zero");
     }
@@ -115,7 +166,21 @@ class DecentralisedESIndexer implements SmartLifecycle, DisposableBean {
     if (bulkTimeout.isBlank()) {
       throw new IllegalArgumentException("ccd.sdk.indexing.bulk-timeout must not be blank");
     }
-    this.workerExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "ccd-es-indexer"));
+    if (workerCount < 1) {
+      throw new IllegalArgumentException("ccd.sdk.indexing.worker-count must be greater than zero");
+    }
+    if (pipelineDepth < 1) {
+      throw new IllegalArgumentException("ccd.sdk.indexing.pipeline-depth must be greater than zero");
+    }
+    this.claimBatchSql = claimBatchSql(IndexingSource.fromProperty(source));
+    this.batchSizer = new AdaptiveBatchSizer(adaptiveBatchEnabled, batchSize, minBatchSize, maxBatchSize,
+        targetBulkBytes, targetBulkLatencyMs);
+    this.metrics = new IndexerMetrics(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), batchSizer);
+    this.listenerExecutor = Executors.newSingleThreadExecutor(threads(virtualThreads).name("ccd-es-indexer").factory());
+    this.workerExecutor = Executors.newFixedThreadPool(workerCount,
+        threads(virtualThreads).name("ccd-es-indexer-worker-", 1).factory());
+    this.completionExecutor = Executors.newFixedThreadPool(workerCount,
+        threads(virtualThreads).name("ccd-es-indexer-completion-", 1).factory());
     var hosts = parseElasticSearchHosts(elasticSearchHosts);
     var restClient = Rest5Client.builder(hosts)
         .setRequestConfigCallback(requestConfigBuilder -> {
@@ -134,9 +199,9 @@ class DecentralisedESIndexer implements SmartLifecycle, DisposableBean {
         })
         .build();
     this.transport = new Rest5ClientTransport(restClient, new JacksonJsonpMapper(mapper));
-    this.client = new ElasticsearchClient(transport);
+    this.client = new ElasticsearchAsyncClient(transport);
 
-    log.info("Starting decentralised ES indexer targeting {}", Arrays.toString(hosts));
+    log.info("Starting decentralised ES indexer targeting {} with {} workers", Arrays.toString(hosts), workerCount);
   }
 
   static URI[] parseElasticSearchHosts(String elasticSearchHosts) {
@@ -163,13 +228,24 @@ class DecentralisedESIndexer implements SmartLifecycle, DisposableBean {
     return host;
   }
 
+  /**
+   * Builds the indexer's threads as virtual threads when Spring Boot runs its own on them.
+   */
+  private static Thread.Builder threads(boolean virtualThreads) {
+    return virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform();
+  }
+
   @Override
   public void start() {
     if (terminated.get()) {
       return;
     }
     if (running.compareAndSet(false, true)) {
-      workerExecutor.submit(this::listenAndPoll);
+      listenerExecutor.submit(this::listen);
+      for (int i = 1; i <= workerCount; i++) {
+        IndexerMetrics.Worker worker = metrics.worker(i);
+        workerExecutor.submit(() -> runWorker(worker));
+      }
     }
   }
 
@@ -189,11 +265,19 @@ class DecentralisedESIndexer implements SmartLifecycle, DisposableBean {
 
   private void stopWorker() {
     terminated.set(true);
+    listenerExecutor.shutdownNow();
     workerExecutor.shutdownNow();
+    completionExecutor.shutdownNow();
     try {
       long waitMs = Math.max(30_000L, pollIntervalMs + 5_000L);
       if (!workerExecutor.awaitTermination(waitMs, TimeUnit.MILLISECONDS)) {
-        log.warn("Decentralised ES indexer worker did not stop within {}ms", waitMs);
+        log.warn("Decentralised ES indexer workers did not stop within {}ms", waitMs);
+      }
+      if (!completionExecutor.awaitTermination(waitMs, TimeUnit.MILLISECONDS)) {
+        log.warn("Decentralised ES indexer completions did not stop within {}ms", waitMs);
+      }
+      if (!listenerExecutor.awaitTermination(waitMs, TimeUnit.MILLISECONDS)) {
+        log.warn("Decentralised ES indexer listener did not stop within {}ms", waitMs);
       }
     } catch (InterruptedException ex) {
       Thread.currentThread().interrupt();
@@ -205,30 +289,91 @@ class DecentralisedESIndexer implements SmartLifecycle, DisposableBean {
     return running.get();
   }
 
-  public void runIndexer() {
+  private void runWorker(IndexerMetrics.Worker worker) {
+    while (!terminated.get()) {
+      runIndexer(worker);
+      if (!awaitWakeup()) {
+        return;
+      }
+    }
+  }
+
+  void runIndexer(IndexerMetrics.Worker worker) {
     if (terminated.get()) {
       return;
     }
+    // Bounds the batches this worker has claimed but not yet completed, so that batch N+1 is claimed and serialised
+    // while batch N is in flight to Elasticsearch and batch N-1 is being completed.
+    var pipelineSlots = new Semaphore(pipelineDepth);
+    var inFlight = new ArrayList<CompletableFuture<Boolean>>();
+    var transientFailures = new AtomicBoolean(false);
     try {
-      PollResult result;
       boolean continueDrain;
       do {
-        result = pollForNewCases();
-        continueDrain = !terminated.get() && result.claimedCases() == batchSize && !result.hasTransientFailures();
+        pipelineSlots.acquire();
+        ClaimedBatch batch = claimNextBatch(worker);
+        if (!batch.operations().isEmpty()) {
+          inFlight.add(indexBatch(batch, worker).whenComplete((hasTransientFailures, ex) -> {
+            if (ex != null || hasTransientFailures) {
+              transientFailures.set(true);
+            }
+            pipelineSlots.release();
+          }));
+        }
+        continueDrain = !terminated.get() && batch.claimedCases() == batch.claimLimit() && !transientFailures.get();
         if (continueDrain) {
+          // A full batch suggests a backlog; let an idle worker claim the next batch in parallel.
+          wakeWorker();
           Thread.sleep(drainDelayMs);
         }
       } while (continueDrain);
     } catch (Exception ex) {
       if (terminated.get()) {
-        log.debug("Decentralised ES indexer stopped after shutdown signal", ex);
+        log.debug("Decentralised ES indexer worker {} stopped after shutdown signal", worker.id(), ex);
       } else {
-        log.error("Decentralised ES indexer failed to poll for new cases", ex);
+        worker.failed();
+        log.error("Decentralised ES indexer worker {} failed to poll for new cases", worker.id(), ex);
+      }
+    } finally {
+      awaitInFlight(inFlight, worker);
+    }
+  }
+
+  private void awaitInFlight(List<CompletableFuture<Boolean>> inFlight, IndexerMetrics.Worker worker) {
+    for (CompletableFuture<Boolean> batch : inFlight) {
+      if (terminated.get()) {
+        // Unfinished claims are left to expire and will be reclaimed after restart.
+        return;
+      }
+      try {
+        batch.get();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException ex) {
+        worker.failed();
+        log.error("Decentralised ES indexer worker {} failed to index a batch", worker.id(), ex.getCause());
       }
     }
   }
 
-  private void listenAndPoll() {
+  private boolean awaitWakeup() {
+    try {
+      wakeups.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+      return true;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private void wakeWorker() {
+    if (wakeups.availablePermits() == 0) {
+      wakeups.release();
+    }
+  }
+
+  private void listen() {
     try {
       while (!terminated.get()) {
         try (Connection connection = dataSource.getConnection()) {
@@ -241,8 +386,9 @@ class DecentralisedESIndexer implements SmartLifecycle, DisposableBean {
             PGConnection pgConnection = connection.unwrap(PGConnection.class);
             log.info("Decentralised ES indexer listening for PostgreSQL notifications on {}", NOTIFICATION_CHANNEL);
 
+            // Notifications may have been missed while disconnected.
+            wakeWorker();
             while (!terminated.get()) {
-              runIndexer();
               waitForNotification(pgConnection);
             }
           } finally {
@@ -278,6 +424,7 @@ class DecentralisedESIndexer implements SmartLifecycle, DisposableBean {
     PGNotification[] notifications = pgConnection.getNotifications(pollIntervalMs);
     if (notifications != null && notifications.length > 0) {
       log.debug("Decentralised ES indexer received {} PostgreSQL notifications", notifications.length);
+      wakeWorker();
     }
   }
 
@@ -289,67 +436,129 @@ class DecentralisedESIndexer implements SmartLifecycle, DisposableBean {
     }
   }
 
-  @SuppressWarnings("unchecked")
-  private PollResult pollForNewCases() {
+  private ClaimedBatch claimNextBatch(IndexerMetrics.Worker worker) {
+    // Taken before the claim so that the local deadline never outlives the lease recorded in ccd.es_queue.
+    long leaseDeadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(queueLockSeconds);
     UUID lockToken = UUID.randomUUID();
-    List<Map<String, Object>> results = transactionTemplate.execute(status -> claimBatch(lockToken));
+    int claimLimit = batchSizer.current();
+    List<ClaimedRow> results = transactionTemplate.execute(status -> claimBatch(lockToken, claimLimit));
+    worker.claimed(results.size());
 
     try {
       var operations = new ArrayList<BulkOperation>();
       var operationMetadata = new ArrayList<IndexOperation>();
+      long bulkBytes = 0;
+
+      for (ClaimedRow row : results) {
+        var claim = new IndexClaim(row.reference(), row.caseRevision(), lockToken);
 
-      for (Map<String, Object> row : results) {
-        var rowJson = row.get("row").toString();
-        long reference = ((Number) row.get("reference")).longValue();
-        long version = ((Number) row.get("case_revision")).longValue();
-        long eventId = ((Number) row.get("event_id")).longValue();
-        String indexId = row.get("index_id").toString();
-        String docId = row.get("case_data_id").toString();
-        var claim = new IndexClaim(reference, version, lockToken);
-
-        appendBulkIndex(operations, indexId, docId, version, rowJson);
-        operationMetadata.add(new IndexOperation(claim, eventId, indexId));
-
-        // Replicate CCD's globalsearch logstash setup.
-        // Where cases define a 'SearchCriteria' field we index certain fields into CCD's central
-        // 'global search' index.
-        // https://github.com/hmcts/cnp-flux-config/blob/master/apps/ccd/ccd-logstash/ccd-logstash.yaml#L99-L175
-        Map<String, Object> map = mapper.readValue(rowJson, Map.class);
-        var data = (Map<String, Object>) map.get("data");
-        if (data.containsKey("SearchCriteria")) {
-          filter(data, "SearchCriteria", "caseManagementLocation", "CaseAccessCategory",
-              "caseNameHmctsInternal", "caseManagementCategory");
-          filter((Map<String, Object>) map.get("supplementary_data"), "HMCTSServiceId");
-          map.remove("last_state_modified_date");
-          map.remove("last_modified");
-          map.remove("created_date");
-          map.put("index_id", "global_search");
-
-          appendBulkIndex(
+        bulkBytes += appendBulkIndex(operations, row.indexId(), row.docId(), row.caseRevision(), row.document());
+        operationMetadata.add(new IndexOperation(claim, row.eventId(), row.indexId()));
+
+        byte[] globalSearchDocument = globalSearchProjection.project(row.document());
+        if (globalSearchDocument != null) {
+          bulkBytes += appendBulkIndex(
               operations,
-              "global_search",
-              docId,
-              version,
-              mapper.writeValueAsString(map));
-          operationMetadata.add(new IndexOperation(claim, eventId, "global_search"));
+              GlobalSearchProjection.INDEX,
+              row.docId(),
+              row.caseRevision(),
+              globalSearchDocument);
+          operationMetadata.add(new IndexOperation(claim, row.eventId(), GlobalSearchProjection.INDEX));
         }
       }
 
-      if (!operations.isEmpty()) {
-        IndexingResult result = executeBulkIndexing(operations, operationMetadata);
-        transactionTemplate.executeWithoutResult(status -> completeIndexing(result));
-        return new PollResult(results.size(), result.hasTransientFailures());
-      }
-      return new PollResult(results.size(), false);
+      return new ClaimedBatch(
+          claimLimit, results.size(), operations, operationMetadata, bulkBytes, leaseDeadlineNanos);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
   }
 
-  private List<Map<String, Object>> claimBatch(UUID lockToken) {
+  private CompletableFuture<Boolean> indexBatch(ClaimedBatch batch, IndexerMetrics.Worker worker) {
+    if (System.nanoTime() - batch.leaseDeadlineNanos() >= 0) {
+      // Another worker may already have reclaimed these rows; leave them to be indexed under the newer claim.
+      log.warn("Decentralised ES indexer worker {} skipped a batch of {} cases whose lease expired before indexing",
+          worker.id(), batch.claimedCases());
+      return CompletableFuture.completedFuture(true);
+    }
+    Timer.Sample bulkRequest = Timer.start();
+    return client.bulk(builder -> builder
+            .timeout(Time.of(time -> time.time(bulkTimeout)))
+            .operations(batch.operations()))
+        .whenComplete((response, ex) -> {
+          long latencyNanos = bulkRequest.stop(worker.bulkRequests());
+          // A failed request is treated as rejected so that, for example, a 413 or 429 for the whole body shrinks
+          // the next batch.
+          boolean rejected = ex != null || response.items().stream().anyMatch(item -> item.status() == 429);
+          batchSizer.record(batch.claimLimit(), batch.claimedCases(), batch.bulkBytes(), latencyNanos, rejected);
+        })
+        // Completion runs on its own executor so that JDBC work never blocks the Elasticsearch client's I/O threads.
+        // It stays correct if the lease expired meanwhile because completion only touches rows holding our lock_token.
+        .thenApplyAsync(response -> {
+          IndexingResult result = processBulkResponse(response, batch.operationMetadata(), worker);
+          transactionTemplate.executeWithoutResult(status -> completeIndexing(result));
+          return result.hasTransientFailures();
+        }, completionExecutor);
+  }
+
+  private List<ClaimedRow> claimBatch(UUID lockToken, int claimLimit) {
+    return jdbcTemplate.query(claimBatchSql, (rs, rowNum) -> new ClaimedRow(
+            rs.getLong("reference"),
+            rs.getLong("case_revision"),
+            rs.getString("case_data_id"),
+            rs.getLong("event_id"),
+            rs.getString("index_id"),
+            // The json column arrives as UTF-8 text, which PgJDBC returns as the raw bytes it received without
+            // decoding to a String. These bytes become the bulk document body without further copies.
+            rs.getBytes("row")),
+        claimLimit, queueLockSeconds, lockToken);
+  }
+
+  static String claimBatchSql(IndexingSource source) {
     // Replicates the behaviour of the previous logstash configuration.
     // https://github.com/hmcts/rse-cft-lib/blob/94aa0edeb0e1a4337a411ed8e6e20f170ed30bae/cftlib/lib/runtime/compose/logstash/logstash_conf.in#L3
-    return jdbcTemplate.queryForList("""
+    String snapshot = switch (source) {
+      case CASE_EVENT -> """
+                  ce.id as event_id,
+                  ccd.case_event_data(ce.data, ce.data_delta, ce.data_checkpoint_id) as data,
+                  coalesce(cd.last_modified, cd.created_date) as last_modified
+              from claimed c
+              join ccd.case_data cd on cd.reference = c.reference
+              join lateral (
+                  select ce.*
+                  from ccd.case_event ce
+                  where ce.case_data_id = cd.id
+                    and ce.case_revision <= c.case_revision
+                  order by ce.case_revision desc
+                  limit 1
+              ) ce on true
+          """;
+      // The event id is still needed for dead letter rows, but is found with an index-only scan; the event's data
+      // is only read when ccd.case_data has moved past the claimed revision.
+      case CASE_DATA -> """
+                  ce.id as event_id,
+                  case
+                      when cd.case_revision = c.case_revision then cd.data
+                      else (
+                          select ccd.case_event_data(stale.data, stale.data_delta, stale.data_checkpoint_id)
+                          from ccd.case_event stale
+                          where stale.id = ce.id
+                      )
+                  end as data,
+                  coalesce(cd.last_modified, cd.created_date) as last_modified
+              from claimed c
+              join ccd.case_data cd on cd.reference = c.reference
+              join lateral (
+                  select ce.id
+                  from ccd.case_event ce
+                  where ce.case_data_id = cd.id
+                    and ce.case_revision <= c.case_revision
+                  order by ce.case_revision desc
+                  limit 1
+              ) ce on true
+          """;
+    };
+    return """
           with next_batch as (
               select reference, case_revision
               from ccd.es_queue
@@ -369,7 +578,7 @@ class DecentralisedESIndexer implements SmartLifecycle, DisposableBean {
               returning q.reference, q.case_revision
           )
           select
-              row_to_json(row)::jsonb as row,
+              row_to_json(row) as row,
               row.reference,
               row.case_revision,
               row.id as case_data_id,
@@ -388,37 +597,23 @@ class DecentralisedESIndexer implements SmartLifecycle, DisposableBean {
                   cd.security_classification,
                   cd.last_state_modified_date,
                   cd.supplementary_data,
-                  ce.id as event_id,
-                  ce.data,
-                  coalesce(cd.last_modified, cd.created_date) as last_modified
-              from claimed c
-              join ccd.case_data cd on cd.reference = c.reference
-              join lateral (
-                  select ce.*
-                  from ccd.case_event ce
-                  where ce.case_data_id = cd.id
-                    and ce.case_revision <= c.case_revision
-                  order by ce.case_revision desc, ce.id desc
-                  limit 1
-              ) ce on true
+          """ + snapshot + """
           ) row
-          """, batchSize, queueLockSeconds, lockToken);
+          """;
   }
 
-  private IndexingResult executeBulkIndexing(
-      List<BulkOperation> operations,
-      List<IndexOperation> operationMetadata
-  ) throws Exception {
-    var response = client.bulk(builder -> builder
-        .timeout(Time.of(time -> time.time(bulkTimeout)))
-        .operations(operations));
-
+  private IndexingResult processBulkResponse(
+      BulkResponse response,
+      List<IndexOperation> operationMetadata,
+      IndexerMetrics.Worker worker
+  ) {
     var claims = operationMetadata.stream()
         .map(IndexOperation::claim)
         .distinct()
         .toList();
 
     if (!response.errors()) {
+      worker.documents(BulkActionOutcome.COMPLETE, operationMetadata.size());
       return new IndexingResult(claims, operationMetadata.stream()
           .map(SuccessfulIndexOperation::from)
           .distinct()
@@ -435,6 +630,7 @@ class DecentralisedESIndexer implements SmartLifecycle, DisposableBean {
       int itemStatus = item.status();
 
       BulkActionOutcome outcome = classifyBulkActionStatus(itemStatus);
+      worker.documents(outcome, 1);
       switch (outcome) {
         case COMPLETE -> {
           successfulOperations.add(SuccessfulIndexOperation.from(metadata));
@@ -551,19 +747,20 @@ class DecentralisedESIndexer implements SmartLifecycle, DisposableBean {
     return BulkActionOutcome.RETRYABLE;
   }
 
-  private void appendBulkIndex(
+  private int appendBulkIndex(
       List<BulkOperation> operations,
       String index,
       String id,
       long version,
-      String source) {
+      byte[] document) {
     operations.add(BulkOperation.of(operation -> operation.index(indexOperation ->
         indexOperation
             .index(index)
             .id(id)
             .version(version)
             .versionType(VersionType.ExternalGte)
-            .document(BinaryData.of(source.getBytes(StandardCharsets.UTF_8), "application/json")))));
+            .document(BinaryData.of(document, "application/json")))));
+    return document.length;
   }
 
   private String extractErrorMessage(ErrorCause error) {
@@ -573,13 +770,6 @@ class DecentralisedESIndexer implements SmartLifecycle, DisposableBean {
     return error.reason() != null ? error.reason() : error.toString();
   }
 
-  public void filter(Map<String, Object> map, String... forKeys) {
-    if (null != map) {
-      var keyset = Set.of(forKeys);
-      map.keySet().removeIf(k -> !keyset.contains(k));
-    }
-  }
-
   @Override
   public void destroy() throws Exception {
     stopWorker();
@@ -625,8 +815,21 @@ class DecentralisedESIndexer implements SmartLifecycle, DisposableBean {
       String failureMessage
   ) {}
 
-  private record PollResult(
+  private record ClaimedRow(
+      long reference,
+      long caseRevision,
+      String docId,
+      long eventId,
+      String indexId,
+      byte[] document
+  ) {}
+
+  private record ClaimedBatch(
+      int claimLimit,
       int claimedCases,
-      boolean hasTransientFailures
+      List<BulkOperation> operations,
+      List<IndexOperation> operationMetadata,
+      long bulkBytes,
+      long leaseDeadlineNanos
   ) {}
 }
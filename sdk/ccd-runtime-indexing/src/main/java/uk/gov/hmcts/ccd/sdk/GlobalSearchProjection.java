@@ -0,0 +1,105 @@
+package uk.gov.hmcts.ccd.sdk;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Builds CCD's global_search document from a claimed indexer row in a single streaming pass.
+ *
+ * <p>Replicates CCD's globalsearch logstash setup: where a case defines a 'SearchCriteria' field, certain fields are
+ * indexed into CCD's central 'global search' index.
+ * https://github.com/hmcts/cnp-flux-config/blob/master/apps/ccd/ccd-logstash/ccd-logstash.yaml#L99-L175
+ *
+ * <p>Only whitelisted fields are copied token by token; everything else is skipped by the parser, so the case data is
+ * never materialised as a tree or map.
+ */
+final class GlobalSearchProjection {
+  static final String INDEX = "global_search";
+
+  private static final String SEARCH_CRITERIA = "SearchCriteria";
+  private static final Set<String> DATA_FIELDS = Set.of(SEARCH_CRITERIA, "caseManagementLocation",
+      "CaseAccessCategory", "caseNameHmctsInternal", "caseManagementCategory");
+  private static final Set<String> SUPPLEMENTARY_DATA_FIELDS = Set.of("HMCTSServiceId");
+  private static final Set<String> EXCLUDED_FIELDS = Set.of("last_state_modified_date", "last_modified",
+      "created_date");
+
+  private final JsonFactory factory;
+
+  GlobalSearchProjection(JsonFactory factory) {
+    this.factory = factory;
+  }
+
+  /**
+   * Projects a claimed row into its global_search document.
+   *
+   * @return the UTF-8 encoded document, or null when the case data does not define SearchCriteria
+   */
+  byte[] project(byte[] row) throws IOException {
+    var out = new ByteArrayOutputStream(512);
+    boolean searchable = false;
+    try (JsonParser parser = factory.createParser(row);
+         JsonGenerator generator = factory.createGenerator(out)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Expected indexer row to be a JSON object");
+      }
+      boolean indexIdWritten = false;
+      generator.writeStartObject();
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        parser.nextToken();
+        if (EXCLUDED_FIELDS.contains(field)) {
+          parser.skipChildren();
+          continue;
+        }
+        generator.writeFieldName(field);
+        switch (field) {
+          case "index_id" -> {
+            generator.writeString(INDEX);
+            indexIdWritten = true;
+          }
+          case "data" -> searchable = copyFields(parser, generator, DATA_FIELDS);
+          case "supplementary_data" -> copyFields(parser, generator, SUPPLEMENTARY_DATA_FIELDS);
+          default -> generator.copyCurrentStructure(parser);
+        }
+      }
+      if (!indexIdWritten) {
+        generator.writeStringField("index_id", INDEX);
+      }
+      generator.writeEndObject();
+    }
+    return searchable ? out.toByteArray() : null;
+  }
+
+  /**
+   * Copies the allowed fields of the object at the parser's current token.
+   *
+   * @return whether the object defines SearchCriteria
+   */
+  private static boolean copyFields(JsonParser parser, JsonGenerator generator, Set<String> allowed)
+      throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      generator.copyCurrentStructure(parser);
+      return false;
+    }
+    boolean hasSearchCriteria = false;
+    generator.writeStartObject();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      parser.nextToken();
+      if (allowed.contains(field)) {
+        hasSearchCriteria |= SEARCH_CRITERIA.equals(field);
+        generator.writeFieldName(field);
+        generator.copyCurrentStructure(parser);
+      } else {
+        parser.skipChildren();
+      }
+    }
+    generator.writeEndObject();
+    return hasSearchCriteria;
+  }
+}
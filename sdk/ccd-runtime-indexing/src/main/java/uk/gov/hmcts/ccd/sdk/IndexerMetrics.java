@@ -0,0 +1,97 @@
+package uk.gov.hmcts.ccd.sdk;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer meters for the decentralised ES indexer. Throughput meters are tagged per worker so that it can be
+ * compared across the worker pool.
+ */
+final class IndexerMetrics {
+  static final String PREFIX = "ccd.indexing";
+
+  private final MeterRegistry registry;
+
+  IndexerMetrics(MeterRegistry registry, AdaptiveBatchSizer batchSizer) {
+    this.registry = registry;
+    Gauge.builder(PREFIX + ".batch.size", batchSizer, AdaptiveBatchSizer::current)
+        .description("Number of cases claimed per batch")
+        .register(registry);
+  }
+
+  Worker worker(int workerId) {
+    return new Worker(String.valueOf(workerId));
+  }
+
+  final class Worker {
+    private final String id;
+    private final Counter batches;
+    private final Counter claimedCases;
+    private final Counter completedDocuments;
+    private final Counter deadLetteredDocuments;
+    private final Counter retryableDocuments;
+    private final Counter failures;
+    private final Timer bulkRequests;
+
+    private Worker(String id) {
+      this.id = id;
+      this.batches = Counter.builder(PREFIX + ".batches")
+          .description("Non-empty batches claimed from ccd.es_queue")
+          .tag("worker", id)
+          .register(registry);
+      this.claimedCases = Counter.builder(PREFIX + ".claimed.cases")
+          .description("Cases claimed from ccd.es_queue")
+          .tag("worker", id)
+          .register(registry);
+      this.completedDocuments = documents("complete");
+      this.deadLetteredDocuments = documents("dead_letter");
+      this.retryableDocuments = documents("retryable");
+      this.failures = Counter.builder(PREFIX + ".failures")
+          .description("Indexer passes that failed with an exception")
+          .tag("worker", id)
+          .register(registry);
+      this.bulkRequests = Timer.builder(PREFIX + ".bulk")
+          .description("Elasticsearch bulk request latency")
+          .tag("worker", id)
+          .register(registry);
+    }
+
+    private Counter documents(String outcome) {
+      return Counter.builder(PREFIX + ".documents")
+          .description("Documents sent to Elasticsearch by bulk item outcome")
+          .tag("worker", id)
+          .tag("outcome", outcome)
+          .register(registry);
+    }
+
+    String id() {
+      return id;
+    }
+
+    void claimed(int cases) {
+      if (cases > 0) {
+        batches.increment();
+        claimedCases.increment(cases);
+      }
+    }
+
+    void documents(DecentralisedESIndexer.BulkActionOutcome outcome, int count) {
+      Counter counter = switch (outcome) {
+        case COMPLETE -> completedDocuments;
+        case DEAD_LETTER -> deadLetteredDocuments;
+        case RETRYABLE -> retryableDocuments;
+      };
+      counter.increment(count);
+    }
+
+    void failed() {
+      failures.increment();
+    }
+
+    Timer bulkRequests() {
+      return bulkRequests;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package uk.gov.hmcts.ccd.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveBatchSizerTest {
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(100);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(2_000);
+
+  @Test
+  void keepsConfiguredBatchSizeWhenDisabled() {
+    var sizer = new AdaptiveBatchSizer(false, 25, 1, 500, 5_000_000, 1_000);
+
+    sizer.record(25, 25, 1_000, FAST, false);
+    sizer.record(25, 25, 1_000, SLOW, true);
+
+    assertThat(sizer.current()).isEqualTo(25);
+  }
+
+  @Test
+  void growsAfterFastFullBatches() {
+    var sizer = new AdaptiveBatchSizer(true, 24, 1, 500, 5_000_000, 1_000);
+
+    sizer.record(24, 24, 24_000, FAST, false);
+
+    assertThat(sizer.current()).isEqualTo(27);
+  }
+
+  @Test
+  void doesNotGrowWhenTheQueueCouldNotFillTheBatch() {
+    var sizer = new AdaptiveBatchSizer(true, 24, 1, 500, 5_000_000, 1_000);
+
+    sizer.record(24, 3, 3_000, FAST, false);
+
+    assertThat(sizer.current()).isEqualTo(24);
+  }
+
+  @Test
+  void shrinksWhenLatencyExceedsTarget() {
+    var sizer = new AdaptiveBatchSizer(true, 100, 1, 500, 5_000_000, 1_000);
+
+    sizer.record(100, 100, 100_000, SLOW, false);
+
+    assertThat(sizer.current()).isEqualTo(75);
+  }
+
+  @Test
+  void halvesWhenElasticsearchRejectsWork() {
+    var sizer = new AdaptiveBatchSizer(true, 100, 1, 500, 5_000_000, 1_000);
+
+    sizer.record(100, 100, 100_000, FAST, true);
+
+    assertThat(sizer.current()).isEqualTo(50);
+  }
+
+  @Test
+  void capsBatchToByteTarget() {
+    var sizer = new AdaptiveBatchSizer(true, 100, 1, 500, 1_000_000, 1_000);
+
+    // 50 KB per case allows at most 20 cases within a 1 MB target.
+    sizer.record(100, 100, 5_000_000, FAST, false);
+
+    assertThat(sizer.current()).isEqualTo(20);
+  }
+
+  @Test
+  void staysWithinConfiguredBounds() {
+    var sizer = new AdaptiveBatchSizer(true, 4, 3, 5, 5_000_000, 1_000);
+
+    sizer.record(4, 4, 4_000, FAST, false);
+    sizer.record(5, 5, 5_000, FAST, false);
+    assertThat(sizer.current()).isEqualTo(5);
+
+    sizer.record(5, 5, 5_000, FAST, true);
+    sizer.record(3, 3, 3_000, FAST, true);
+    assertThat(sizer.current()).isEqualTo(3);
+  }
+
+  @Test
+  void rejectsMaxBelowMin() {
+    assertThatThrownBy(() -> new AdaptiveBatchSizer(true, 25, 10, 5, 5_000_000, 1_000))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("ccd.sdk.indexing.adaptive-batch.max-batch-size must not be less than min-batch-size");
+  }
+}
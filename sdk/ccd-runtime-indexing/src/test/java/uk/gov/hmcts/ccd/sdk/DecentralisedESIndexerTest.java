@@ -40,6 +40,44 @@ class DecentralisedESIndexerTest {
         .run(context -> assertThat(context).hasSingleBean(DecentralisedESIndexer.class));
   }
 
+  @Test
+  void rejectsWorkerCountBelowOne() {
+    contextRunner
+        .withPropertyValues("ccd.sdk.indexing.worker-count=0")
+        .run(context -> assertThat(context).getFailure()
+            .hasRootCauseInstanceOf(IllegalArgumentException.class)
+            .rootCause()
+            .hasMessage("ccd.sdk.indexing.worker-count must be greater than zero"));
+  }
+
+  @Test
+  void rejectsPipelineDepthBelowOne() {
+    contextRunner
+        .withPropertyValues("ccd.sdk.indexing.pipeline-depth=0")
+        .run(context -> assertThat(context).getFailure()
+            .hasRootCauseInstanceOf(IllegalArgumentException.class)
+            .rootCause()
+            .hasMessage("ccd.sdk.indexing.pipeline-depth must be greater than zero"));
+  }
+
+  @Test
+  void parsesIndexingSource() {
+    assertThat(DecentralisedESIndexer.IndexingSource.fromProperty("case-event"))
+        .isEqualTo(DecentralisedESIndexer.IndexingSource.CASE_EVENT);
+    assertThat(DecentralisedESIndexer.IndexingSource.fromProperty(" case-data "))
+        .isEqualTo(DecentralisedESIndexer.IndexingSource.CASE_DATA);
+  }
+
+  @Test
+  void rejectsUnknownIndexingSource() {
+    contextRunner
+        .withPropertyValues("ccd.sdk.indexing.source=case-view")
+        .run(context -> assertThat(context).getFailure()
+            .hasRootCauseInstanceOf(IllegalArgumentException.class)
+            .rootCause()
+            .hasMessage("ccd.sdk.indexing.source must be case-event or case-data but was case-view"));
+  }
+
   @Test
   void parsesSingleHostWithScheme() {
     var hosts = DecentralisedESIndexer.parseElasticSearchHosts("https://es-master:9243");
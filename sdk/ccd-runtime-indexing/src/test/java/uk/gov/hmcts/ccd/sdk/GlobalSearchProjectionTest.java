@@ -0,0 +1,114 @@
+package uk.gov.hmcts.ccd.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class GlobalSearchProjectionTest {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final GlobalSearchProjection projection = new GlobalSearchProjection(MAPPER.getFactory());
+
+  @Test
+  void projectsWhitelistedFieldsIntoGlobalSearchDocument() throws Exception {
+    byte[] row = row(1_000);
+
+    byte[] document = projection.project(row);
+
+    assertThat(document).isNotNull();
+    assertThat(MAPPER.readTree(document)).isEqualTo(MAPPER.readTree(legacyProjection(row)));
+    assertThat(MAPPER.readTree(document).path("data").properties())
+        .extracting(Map.Entry::getKey)
+        .containsExactly("caseNameHmctsInternal", "SearchCriteria", "caseManagementLocation");
+    assertThat(MAPPER.readTree(document).path("index_id").asText()).isEqualTo("global_search");
+  }
+
+  @Test
+  void skipsCasesWithoutSearchCriteria() throws Exception {
+    ObjectNode row = (ObjectNode) MAPPER.readTree(row(10));
+    ((ObjectNode) row.path("data")).remove("SearchCriteria");
+
+    assertThat(projection.project(MAPPER.writeValueAsBytes(row))).isNull();
+  }
+
+  @Test
+  void projectsSearchCriteriaWithNullValue() throws Exception {
+    ObjectNode row = (ObjectNode) MAPPER.readTree(row(10));
+    ((ObjectNode) row.path("data")).putNull("SearchCriteria");
+
+    assertThat(MAPPER.readTree(projection.project(MAPPER.writeValueAsBytes(row))))
+        .isEqualTo(MAPPER.readTree(legacyProjection(MAPPER.writeValueAsBytes(row))));
+  }
+
+  @Test
+  void keepsNullSupplementaryData() throws Exception {
+    ObjectNode row = (ObjectNode) MAPPER.readTree(row(10));
+    row.putNull("supplementary_data");
+
+    assertThat(MAPPER.readTree(projection.project(MAPPER.writeValueAsBytes(row))))
+        .isEqualTo(MAPPER.readTree(legacyProjection(MAPPER.writeValueAsBytes(row))));
+  }
+
+  /**
+   * The Map based projection the indexer used before streaming, kept as the reference behaviour.
+   */
+  @SuppressWarnings("unchecked")
+  private static byte[] legacyProjection(byte[] rowJson) throws Exception {
+    Map<String, Object> map = MAPPER.readValue(new String(rowJson, StandardCharsets.UTF_8), Map.class);
+    var data = (Map<String, Object>) map.get("data");
+    if (!data.containsKey("SearchCriteria")) {
+      return null;
+    }
+    filter(data, "SearchCriteria", "caseManagementLocation", "CaseAccessCategory",
+        "caseNameHmctsInternal", "caseManagementCategory");
+    filter((Map<String, Object>) map.get("supplementary_data"), "HMCTSServiceId");
+    map.remove("last_state_modified_date");
+    map.remove("last_modified");
+    map.remove("created_date");
+    map.put("index_id", "global_search");
+    return MAPPER.writeValueAsString(map).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static void filter(Map<String, Object> map, String... forKeys) {
+    if (null != map) {
+      var keyset = Set.of(forKeys);
+      map.keySet().removeIf(k -> !keyset.contains(k));
+    }
+  }
+
+  private static byte[] row(int fields) throws Exception {
+    var row = MAPPER.createObjectNode()
+        .put("reference", 1234567890123456L)
+        .put("case_revision", 7)
+        .put("case_type_id", "ChaosCase")
+        .put("index_id", "chaoscase_cases")
+        .put("created_date", "2026-01-01T10:00:00")
+        .put("jurisdiction", "TEST")
+        .put("id", 42)
+        .put("state", "Submitted")
+        .put("security_classification", "PUBLIC")
+        .put("last_state_modified_date", "2026-01-02T10:00:00");
+    row.putObject("supplementary_data")
+        .put("HMCTSServiceId", "ABA1")
+        .putObject("orgs_assigned_users").put("ORG1", 2);
+    row.put("event_id", 99);
+    var data = row.putObject("data");
+    data.put("caseNameHmctsInternal", "Smith v Jones");
+    for (int i = 0; i < fields; i++) {
+      data.putObject("field" + i)
+          .put("value", "value-" + i)
+          .put("amount", i * 1.5)
+          .putArray("items").add(i).add("item-" + i);
+    }
+    data.putObject("SearchCriteria")
+        .putArray("OtherCaseReferences").addObject().put("value", "REF-1");
+    data.putObject("caseManagementLocation").put("region", "1").put("baseLocation", "20262");
+    row.put("last_modified", "2026-01-03T10:00:00");
+    return MAPPER.writeValueAsBytes(row);
+  }
+}
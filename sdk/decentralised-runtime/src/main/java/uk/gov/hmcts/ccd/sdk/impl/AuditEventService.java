@@ -8,16 +8,15 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -33,18 +32,57 @@ import uk.gov.hmcts.ccd.sdk.ResolvedConfigRegistry;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 
 @Slf4j
-@RequiredArgsConstructor
 @Service(value = "uk.gov.hmcts.ccd.sdk.impl.AuditEventService")
 class AuditEventService {
 
+  static final int MAX_HISTORY_PAGE_SIZE = 200;
+
   private final NamedParameterJdbcTemplate ndb;
   private final ObjectMapper defaultMapper;
   private final Optional<MessagePublisher> publisher;
   private final ResolvedConfigRegistry registry;
+  private final boolean storeDataDeltas;
+  private final int checkpointInterval;
+
+  AuditEventService(NamedParameterJdbcTemplate ndb,
+                    ObjectMapper defaultMapper,
+                    Optional<MessagePublisher> publisher,
+                    ResolvedConfigRegistry registry,
+                    @Value("${ccd.decentralised-runtime.case-event-deltas.enabled:false}") boolean storeDataDeltas,
+                    @Value("${ccd.decentralised-runtime.case-event-deltas.checkpoint-interval:20}")
+                    int checkpointInterval) {
+    if (checkpointInterval < 1) {
+      throw new IllegalArgumentException(
+          "ccd.decentralised-runtime.case-event-deltas.checkpoint-interval must be greater than zero");
+    }
+    this.ndb = ndb;
+    this.defaultMapper = defaultMapper;
+    this.publisher = publisher;
+    this.registry = registry;
+    this.storeDataDeltas = storeDataDeltas;
+    this.checkpointInterval = checkpointInterval;
+  }
 
   public List<DecentralisedAuditEvent> loadHistory(long caseRef) {
     final String sql = """
-        select ce.*,
+        select ce.id,
+               ce.event_id,
+               ce.event_name,
+               ce.summary,
+               ce.description,
+               ce.user_id,
+               ce.user_first_name,
+               ce.user_last_name,
+               ce.case_type_id,
+               ce.case_type_version,
+               ce.state_id,
+               ce.state_name,
+               ce.created_date,
+               ce.proxied_by,
+               ce.proxied_by_first_name,
+               ce.proxied_by_last_name,
+               ce.security_classification,
+               ccd.case_event_data(ce.data, ce.data_delta, ce.data_checkpoint_id) as event_data,
                cd.reference as "case_reference",
                significant_item.description as significant_item_description,
                significant_item."type"::text as significant_item_type,
@@ -59,15 +97,94 @@ class AuditEventService {
                limit 1
              ) significant_item on true
         where cd.reference = :caseRef
-        order by id desc
+        order by ce.id desc
         """;
 
     return ndb.query(sql, Map.of("caseRef", caseRef), this::mapAuditEvent);
   }
 
+  /**
+   * Loads one page of a case's history, newest first, without any event's case data.
+   *
+   * <p>Pages are keyed on the event id rather than an offset so that each is a bounded index range scan however long
+   * the history, and events written while paging do not shift later pages. The data for an event is loaded on demand
+   * through {@link #loadHistoryEvent}.
+   *
+   * @param before only events with an id lower than this, or the newest events if empty
+   * @param limit the most events to return
+   */
+  public CaseHistoryPage loadHistoryPage(long caseRef, Optional<Long> before, int limit) {
+    if (limit < 1 || limit > MAX_HISTORY_PAGE_SIZE) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "History page limit must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+    }
+    final String sql = """
+        select ce.id,
+               ce.event_id,
+               ce.event_name,
+               ce.summary,
+               ce.description,
+               ce.user_id,
+               ce.user_first_name,
+               ce.user_last_name,
+               ce.case_type_id,
+               ce.case_type_version,
+               ce.state_id,
+               ce.state_name,
+               ce.created_date,
+               ce.proxied_by,
+               ce.proxied_by_first_name,
+               ce.proxied_by_last_name,
+               ce.security_classification,
+               cd.reference as "case_reference",
+               significant_item.description as significant_item_description,
+               significant_item."type"::text as significant_item_type,
+               significant_item.url as significant_item_url
+        from ccd.case_event ce
+             join ccd.case_data cd on cd.id = ce.case_data_id
+             left join lateral (
+               select item.description, item."type", item.url
+               from ccd.case_event_significant_items item
+               where item.case_event_id = ce.id
+               order by item.id desc
+               limit 1
+             ) significant_item on true
+        where cd.reference = :caseRef
+          and ce.id < :before
+        order by ce.id desc
+        limit :limit
+        """;
+
+    // One more than asked for, to tell whether there is a further page without counting the history.
+    var params = Map.of("caseRef", caseRef, "before", before.orElse(Long.MAX_VALUE), "limit", limit + 1);
+    List<DecentralisedAuditEvent> events = ndb.query(sql, params, (rs, rowNum) -> mapAuditEventMetadata(rs));
+    if (events.size() <= limit) {
+      return new CaseHistoryPage(events, null);
+    }
+    List<DecentralisedAuditEvent> page = events.subList(0, limit);
+    return new CaseHistoryPage(List.copyOf(page), page.get(limit - 1).getId());
+  }
+
   public DecentralisedAuditEvent loadHistoryEvent(long caseRef, long eventId) {
     final String sql = """
-        select ce.*,
+        select ce.id,
+               ce.event_id,
+               ce.event_name,
+               ce.summary,
+               ce.description,
+               ce.user_id,
+               ce.user_first_name,
+               ce.user_last_name,
+               ce.case_type_id,
+               ce.case_type_version,
+               ce.state_id,
+               ce.state_name,
+               ce.created_date,
+               ce.proxied_by,
+               ce.proxied_by_first_name,
+               ce.proxied_by_last_name,
+               ce.security_classification,
+               ccd.case_event_data(ce.data, ce.data_delta, ce.data_checkpoint_id) as event_data,
                cd.reference as "case_reference",
                significant_item.description as significant_item_description,
                significant_item."type"::text as significant_item_type,
@@ -96,11 +213,21 @@ class AuditEventService {
     }
   }
 
+  /**
+   * Writes the audit event for a submission together with its significant item and message queue candidate.
+   *
+   * <p>All three inserts run as one statement. The event id is reserved by the case upsert and the event is
+   * stamped with the case row's last modified time, so the message can be built before anything is written.
+   *
+   * <p>With deltas enabled the event's data is stored as the top level fields that differ from the case's latest
+   * full copy, which is written afresh once the last one is {@code checkpointInterval} revisions old.
+   */
   @SneakyThrows
   public long saveAuditRecord(
       DecentralisedCaseEvent event,
       IdamService.User user,
       uk.gov.hmcts.ccd.domain.model.definition.CaseDetails currentView,
+      long caseEventId,
       UUID idempotencyKey,
       Optional<uk.gov.hmcts.reform.ccd.client.model.SignificantItem> significantItem
   ) {
@@ -111,50 +238,113 @@ class AuditEventService {
         : null;
     var eventDetails = event.getEventDetails();
     var sql = """
-        insert into ccd.case_event (
-          data,
-          event_id,
-          user_id,
-          case_data_id,
-          case_type_id,
-          case_type_version,
-          state_id,
-          user_first_name,
-          user_last_name,
-          event_name,
-          state_name,
-          summary,
-          description,
-          security_classification,
-          version,
-          case_revision,
-          idempotency_key,
-          proxied_by,
-          proxied_by_first_name,
-          proxied_by_last_name)
-        values (
-          :data::jsonb,
-          :event_id,
-          :user_id,
-          :case_data_id,
-          :case_type_id,
-          :case_type_version,
-          :state_id,
-          :user_first_name,
-          :user_last_name,
-          :event_name,
-          :state_name,
-          :summary,
-          :description,
-          :security_classification::ccd.securityclassification,
-          :version,
-          :case_revision,
-          :idempotency_key,
-          :proxied_by,
-          :proxied_by_first_name,
-          :proxied_by_last_name
+        with new_data as (
+          select :data::jsonb as data
+        ),
+        -- The latest full copy of the case data within the checkpoint interval, if deltas are being stored.
+        latest_checkpoint as (
+          select cp.id, cp.data
+          from ccd.case_event cp
+          where :store_data_delta
+            and cp.case_data_id = :case_data_id
+            and cp.case_revision > :case_revision - :checkpoint_interval
+            and cp.data_checkpoint_id is null
+          order by cp.case_revision desc
+          limit 1
+        ),
+        delta as (
+          select latest_checkpoint.id as checkpoint_id,
+                 jsonb_build_object(
+                   'set', coalesce((
+                     select jsonb_object_agg(field.key, field.value)
+                     from jsonb_each(new_data.data) field
+                     where latest_checkpoint.data -> field.key is distinct from field.value
+                   ), '{}'::jsonb),
+                   'unset', coalesce((
+                     select jsonb_agg(field.key)
+                     from jsonb_object_keys(latest_checkpoint.data) field(key)
+                     where new_data.data -> field.key is null
+                   ), '[]'::jsonb)
+                 ) as data_delta
+          from latest_checkpoint, new_data
+          where jsonb_typeof(new_data.data) = 'object'
+            and jsonb_typeof(latest_checkpoint.data) = 'object'
+        ),
+        inserted_event as (
+          insert into ccd.case_event (
+            id,
+            created_date,
+            data,
+            data_delta,
+            data_checkpoint_id,
+            event_id,
+            user_id,
+            case_data_id,
+            case_type_id,
+            case_type_version,
+            state_id,
+            user_first_name,
+            user_last_name,
+            event_name,
+            state_name,
+            summary,
+            description,
+            security_classification,
+            version,
+            case_revision,
+            idempotency_key,
+            proxied_by,
+            proxied_by_first_name,
+            proxied_by_last_name)
+          values (
+            :id,
+            :created_date,
+            (select new_data.data from new_data where not exists (select 1 from delta)),
+            (select delta.data_delta from delta),
+            (select delta.checkpoint_id from delta),
+            :event_id,
+            :user_id,
+            :case_data_id,
+            :case_type_id,
+            :case_type_version,
+            :state_id,
+            :user_first_name,
+            :user_last_name,
+            :event_name,
+            :state_name,
+            :summary,
+            :description,
+            :security_classification::ccd.securityclassification,
+            :version,
+            :case_revision,
+            :idempotency_key,
+            :proxied_by,
+            :proxied_by_first_name,
+            :proxied_by_last_name
+          )
+          returning id
+        ),
+        inserted_significant_item as (
+          insert into ccd.case_event_significant_items (
+            description,
+            "type",
+            url,
+            case_event_id
+          )
+          select :significant_item_description,
+                 :significant_item_type::ccd.significant_item_type,
+                 :significant_item_url,
+                 id
+          from inserted_event
+          where :has_significant_item
+        ),
+        inserted_message as (
+          insert into ccd.message_queue_candidates (reference, message_type, time_stamp, message_information)
+          select :reference, 'CASE_EVENT', :created_date, :message_information::jsonb
+          from inserted_event
+          where :has_message
         )
-        returning id, created_date
+        select id from inserted_event
         """;
 
     var stateName = registry.labelForState(
@@ -179,8 +369,17 @@ class AuditEventService {
       proxiedByLastName = user.userDetails().getFamilyName();
     }
 
+    // The upsert set last_modified from the transaction clock, which is also what case_event defaults to.
+    LocalDateTime createdDate = currentView.getLastModified();
+    Optional<String> message = buildMessage(event, user, currentView, oldState, caseEventId, createdDate);
+    var recordedItem = significantItem.filter(this::isRecordable);
+
     var params = new MapSqlParameterSource()
+        .addValue("id", caseEventId)
+        .addValue("created_date", createdDate)
         .addValue("data", defaultMapper.writeValueAsString(currentView.getData()))
+        .addValue("store_data_delta", storeDataDeltas)
+        .addValue("checkpoint_interval", checkpointInterval)
         .addValue("event_id", eventDetails.getEventId())
         .addValue("user_id", auditUserId)
         .addValue("case_data_id", event.getInternalCaseId())
@@ -199,39 +398,58 @@ class AuditEventService {
         .addValue("idempotency_key", idempotencyKey)
         .addValue("proxied_by", proxiedBy)
         .addValue("proxied_by_first_name", proxiedByFirstName)
-        .addValue("proxied_by_last_name", proxiedByLastName);
+        .addValue("proxied_by_last_name", proxiedByLastName)
+        .addValue("has_significant_item", recordedItem.isPresent())
+        .addValue("significant_item_description", recordedItem.map(item -> item.getDescription()).orElse(null))
+        .addValue("significant_item_type", recordedItem.map(item -> item.getType()).orElse(null))
+        .addValue("significant_item_url", recordedItem.map(item -> item.getUrl()).orElse(null))
+        .addValue("reference", currentView.getReference())
+        .addValue("has_message", message.isPresent())
+        .addValue("message_information", message.orElse(null));
 
-    var inserted = ndb.queryForObject(sql, params, this::mapInsertedAuditEvent);
-    significantItem.ifPresent(item -> saveSignificantItem(inserted.id(), item));
+    long id = ndb.queryForObject(sql, params, Long.class);
+    message.ifPresent(m -> log.info(
+        "Successfully published event {} for case {} to message_queue_candidates",
+        eventDetails.getEventId(),
+        currentView.getReference()
+    ));
+    return id;
+  }
 
-    if (this.publisher.isPresent()) {
-      log.info(
-          "Publishing event {} for case reference: {}",
-          eventDetails.getEventId(),
-          currentView.getReference()
-      );
-      this.publisher.get().publishEvent(
-          currentView.getReference(),
-          user.userDetails().getUid(),
-          eventDetails.getEventId(),
-          oldState,
-          toCaseDetails(event.getCaseDetails()),
-          inserted.id(),
-          inserted.createdDate()
-      );
-    } else {
+  private Optional<String> buildMessage(
+      DecentralisedCaseEvent event,
+      IdamService.User user,
+      uk.gov.hmcts.ccd.domain.model.definition.CaseDetails currentView,
+      String oldState,
+      long caseEventId,
+      LocalDateTime createdDate
+  ) {
+    if (this.publisher.isEmpty()) {
       log.info(
           "Message publishing disabled, skipping event publication for case reference: {}",
           currentView.getReference()
       );
+      return Optional.empty();
     }
-    return inserted.id();
+
+    log.info(
+        "Publishing event {} for case reference: {}",
+        event.getEventDetails().getEventId(),
+        currentView.getReference()
+    );
+    return this.publisher.get().buildMessage(
+        currentView.getReference(),
+        user.userDetails().getUid(),
+        event.getEventDetails().getEventId(),
+        oldState,
+        toCaseDetails(event.getCaseDetails()),
+        caseEventId,
+        createdDate
+    );
   }
 
   private void validateSignificantItem(uk.gov.hmcts.reform.ccd.client.model.SignificantItem item) {
-    if (item.getType() == null || item.getType().isBlank()
-        || item.getDescription() == null || item.getDescription().isBlank()
-        || item.getUrl() == null || item.getUrl().isBlank()) {
+    if (!isRecordable(item) || item.getUrl() == null || item.getUrl().isBlank()) {
       return;
     }
 
@@ -245,32 +463,9 @@ class AuditEventService {
     }
   }
 
-  private void saveSignificantItem(long caseEventId, uk.gov.hmcts.reform.ccd.client.model.SignificantItem item) {
-    if (item.getType() == null || item.getType().isBlank()
-        || item.getDescription() == null || item.getDescription().isBlank()) {
-      return;
-    }
-
-    ndb.update(
-        """
-        insert into ccd.case_event_significant_items (
-          description,
-          "type",
-          url,
-          case_event_id
-        ) values (
-          :description,
-          :type::ccd.significant_item_type,
-          :url,
-          :caseEventId
-        )
-        """,
-        new MapSqlParameterSource()
-            .addValue("description", item.getDescription())
-            .addValue("type", item.getType())
-            .addValue("url", item.getUrl())
-            .addValue("caseEventId", caseEventId)
-    );
+  private boolean isRecordable(uk.gov.hmcts.reform.ccd.client.model.SignificantItem item) {
+    return item.getType() != null && !item.getType().isBlank()
+        && item.getDescription() != null && !item.getDescription().isBlank();
   }
 
   private CaseDetails toCaseDetails(uk.gov.hmcts.ccd.domain.model.definition.CaseDetails data) {
@@ -279,6 +474,12 @@ class AuditEventService {
 
   @SneakyThrows
   private DecentralisedAuditEvent mapAuditEvent(ResultSet rs, int rowNum) {
+    var decentralisedEvent = mapAuditEventMetadata(rs);
+    decentralisedEvent.getEvent().setData(defaultMapper.readValue(rs.getString("event_data"), DATA_TYPE));
+    return decentralisedEvent;
+  }
+
+  private DecentralisedAuditEvent mapAuditEventMetadata(ResultSet rs) throws SQLException {
     var auditEvent = new AuditEvent();
     auditEvent.setId(rs.getLong("id"));
     auditEvent.setEventId(rs.getString("event_id"));
@@ -298,8 +499,6 @@ class AuditEventService {
     auditEvent.setProxiedByLastName(rs.getString("proxied_by_last_name"));
     auditEvent.setSecurityClassification(SecurityClassification.valueOf(rs.getString("security_classification")));
     auditEvent.setSignificantItem(mapSignificantItem(rs));
-
-    auditEvent.setData(defaultMapper.readValue(rs.getString("data"), DATA_TYPE));
     auditEvent.setDataClassification(Map.of());
 
     var decentralisedEvent = new DecentralisedAuditEvent();
@@ -322,13 +521,5 @@ class AuditEventService {
     return item;
   }
 
-  private InsertedAuditEvent mapInsertedAuditEvent(ResultSet rs, int rowNum) throws SQLException {
-    Timestamp created = rs.getTimestamp("created_date");
-    LocalDateTime createdDate = created.toLocalDateTime();
-    return new InsertedAuditEvent(rs.getLong("id"), createdDate);
-  }
-
-  private record InsertedAuditEvent(long id, LocalDateTime createdDate) {}
-
   private static final TypeReference<Map<String, JsonNode>> DATA_TYPE = new TypeReference<>() {};
 }
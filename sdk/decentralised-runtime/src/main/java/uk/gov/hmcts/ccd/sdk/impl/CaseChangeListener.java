@@ -0,0 +1,160 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listens on {@code ccd_case_changed}, raised by a trigger whenever a case_data row's revision changes or the row is
+ * deleted, and passes each changed case to the {@link CaseChangeSubscriber}s so that every replica can drop its
+ * local copies of cases written elsewhere.
+ *
+ * <p>Notifications sent while the listener is disconnected are lost, so subscribers are told to discard everything
+ * each time it (re)connects.
+ */
+@Slf4j
+@Component
+class CaseChangeListener implements SmartLifecycle {
+
+  static final String NOTIFICATION_CHANNEL = "ccd_case_changed";
+  private static final int NOTIFICATION_RECONNECT_DELAY_MS = 1000;
+  private static final int CONNECTION_VALIDATION_TIMEOUT_SECONDS = 5;
+
+  private final DataSource dataSource;
+  private final List<CaseChangeSubscriber> subscribers;
+  private final int pollIntervalMs;
+  private final AtomicBoolean terminated = new AtomicBoolean(false);
+  private final AtomicBoolean running = new AtomicBoolean(false);
+  private final ExecutorService listenerExecutor;
+
+  CaseChangeListener(DataSource dataSource,
+                     List<CaseChangeSubscriber> subscribers,
+                     @Value("${ccd.decentralised-runtime.case-change-listener.poll-interval-ms:10000}")
+                     int pollIntervalMs,
+                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+    if (pollIntervalMs < 1) {
+      throw new IllegalArgumentException(
+          "ccd.decentralised-runtime.case-change-listener.poll-interval-ms must be greater than zero");
+    }
+    this.dataSource = dataSource;
+    this.subscribers = subscribers.stream().filter(CaseChangeSubscriber::subscribed).toList();
+    this.pollIntervalMs = pollIntervalMs;
+    this.listenerExecutor = Executors.newSingleThreadExecutor(
+        (virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform()).name("ccd-case-change-listener").factory());
+  }
+
+  @Override
+  public void start() {
+    if (terminated.get() || subscribers.isEmpty()) {
+      return;
+    }
+    if (running.compareAndSet(false, true)) {
+      listenerExecutor.submit(this::listen);
+    }
+  }
+
+  @Override
+  public void stop() {
+    terminated.set(true);
+    listenerExecutor.shutdownNow();
+    try {
+      long waitMs = pollIntervalMs + 5_000L;
+      if (!listenerExecutor.awaitTermination(waitMs, TimeUnit.MILLISECONDS)) {
+        log.warn("Case change listener did not stop within {}ms", waitMs);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running.get();
+  }
+
+  private void listen() {
+    try {
+      while (!terminated.get()) {
+        try (Connection connection = dataSource.getConnection()) {
+          connection.setAutoCommit(true);
+          try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + NOTIFICATION_CHANNEL);
+          }
+
+          try {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            log.info("Case change listener listening for PostgreSQL notifications on {}", NOTIFICATION_CHANNEL);
+
+            // Only now that LISTEN is in place can nothing further be missed.
+            subscribers.forEach(CaseChangeSubscriber::changesMayHaveBeenMissed);
+            while (!terminated.get()) {
+              waitForNotifications(connection, pgConnection);
+            }
+          } finally {
+            unlistenQuietly(connection);
+          }
+        } catch (Exception ex) {
+          if (terminated.get()) {
+            log.debug("Case change listener stopped after shutdown signal", ex);
+          } else {
+            log.warn("Case change listener failed; reconnecting", ex);
+            sleepBeforeReconnect();
+          }
+        }
+      }
+    } finally {
+      running.set(false);
+    }
+  }
+
+  private void waitForNotifications(Connection connection, PGConnection pgConnection) throws SQLException {
+    PGNotification[] notifications = pgConnection.getNotifications(pollIntervalMs);
+    if (notifications == null || notifications.length == 0) {
+      // A quiet channel and a dead connection look the same, so check which before waiting again.
+      if (!connection.isValid(CONNECTION_VALIDATION_TIMEOUT_SECONDS)) {
+        throw new SQLException("Case change listener connection is no longer valid");
+      }
+      return;
+    }
+    log.debug("Case change listener received {} PostgreSQL notifications", notifications.length);
+    for (PGNotification notification : notifications) {
+      // "<reference>:<revision>" for updates, "<reference>" alone for deletes.
+      String[] change = notification.getParameter().split(":", 2);
+      long reference = Long.parseLong(change[0]);
+      long currentRevision = change.length == 2 ? Long.parseLong(change[1]) : Long.MAX_VALUE;
+      subscribers.forEach(subscriber -> subscriber.caseChanged(reference, currentRevision));
+    }
+  }
+
+  private void unlistenQuietly(Connection connection) {
+    try {
+      if (!connection.isClosed()) {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("UNLISTEN " + NOTIFICATION_CHANNEL);
+        }
+      }
+    } catch (SQLException ex) {
+      log.debug("Failed to unlisten case change notification channel", ex);
+    }
+  }
+
+  private void sleepBeforeReconnect() {
+    try {
+      Thread.sleep(NOTIFICATION_RECONNECT_DELAY_MS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+/**
+ * Receives the case references announced on the {@code ccd_case_changed} channel by {@link CaseChangeListener}.
+ */
+interface CaseChangeSubscriber {
+
+  /**
+   * Whether this subscriber wants notifications. The listener holds no connection open when none do.
+   */
+  boolean subscribed();
+
+  /**
+   * The case has been updated or deleted by this or another replica, making every revision below
+   * {@code currentRevision} out of date. Deletes are announced with {@link Long#MAX_VALUE}.
+   */
+  void caseChanged(long reference, long currentRevision);
+
+  /**
+   * The listener has (re)connected, so any change since it was last connected may have gone unannounced.
+   */
+  void changesMayHaveBeenMissed();
+}
@@ -0,0 +1,48 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Map;
+import lombok.SneakyThrows;
+
+/**
+ * Moves case data between the {@code Map<String, JsonNode>} held on a submitted event and a service's case class.
+ *
+ * <p>{@code convertValue} copies its input into a token buffer before reading it back, and rendering a case to a
+ * JSON string only to parse it again doubles that cost. Both are avoided here, which matters for multi-MB cases.
+ */
+final class CaseDataBinder {
+
+  private CaseDataBinder() {
+  }
+
+  /**
+   * Reads case data into {@code caseClass} by walking the event's existing JSON tree as a single token stream.
+   */
+  @SneakyThrows
+  static <T> T read(ObjectMapper mapper, Map<String, JsonNode> data, Class<T> caseClass) {
+    if (data == null || hasMissingValues(data)) {
+      // A tree cannot hold a Java null, so leave such maps to the general conversion.
+      return mapper.convertValue(data, caseClass);
+    }
+    return mapper.treeToValue(new ObjectNode(mapper.getNodeFactory(), data), caseClass);
+  }
+
+  /**
+   * Writes a case back out as a JSON tree as {@code mapper} serialises it, for example with {@code @External}
+   * fields filtered, buffering its tokens rather than a JSON string.
+   */
+  static JsonNode write(ObjectMapper mapper, Object caseData) {
+    return mapper.valueToTree(caseData);
+  }
+
+  private static boolean hasMissingValues(Map<String, JsonNode> data) {
+    for (JsonNode value : data.values()) {
+      if (value == null) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -6,18 +6,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.web.server.ResponseStatusException;
 import uk.gov.hmcts.ccd.data.casedetails.SecurityClassification;
 import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseDetails;
 import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseEvent;
@@ -30,50 +32,66 @@ import uk.gov.hmcts.ccd.sdk.ResolvedConfigRegistry;
 class CaseDataRepository {
   private static final TypeReference<Map<String, JsonNode>> JSON_NODE_MAP = new TypeReference<>() {};
   private static final String HMCTS_SERVICE_ID_FIELD = "HMCTSServiceId";
+  private static final int STREAM_PAGE_SIZE = 20;
+  private static final String CASES_BY_REFERENCE_SQL = """
+      select
+            c.id,
+            reference,
+            c.created_date as created_date,
+            jurisdiction,
+            case_type_id,
+            state,
+            data::text as case_data,
+            security_classification::text,
+            version,
+            last_state_modified_date,
+            coalesce(c.last_modified, c.created_date) as last_modified,
+            supplementary_data::text,
+            case_revision
+       from ccd.case_data c
+       where reference IN (:caseRefs)
+       order by reference asc
+      """;
 
   private final NamedParameterJdbcTemplate ndb;
   private final ObjectMapper defaultMapper;
   private final ResolvedConfigRegistry configRegistry;
 
-  public List<DecentralisedCaseDetails> getCases(List<Long> caseRefs) {
+  /**
+   * Passes each requested case to {@code consumer} in reference order.
+   *
+   * <p>Cases are read a page of {@value #STREAM_PAGE_SIZE} references at a time, so only that many case blobs are
+   * held at once however many references are requested. Each page is read in full, and its connection returned to
+   * the pool, before any of its cases are passed on, so a slow consumer such as a client reading the response holds
+   * neither a connection nor a transaction open. Each page is read in its own statement.
+   */
+  public void streamCases(List<Long> caseRefs, Consumer<DecentralisedCaseDetails> consumer) {
     if (caseRefs == null || caseRefs.isEmpty()) {
-      return Collections.emptyList();
+      return;
+    }
+    log.info("Streaming cases for references: {}", caseRefs);
+    List<Long> references = caseRefs.stream().distinct().sorted().toList();
+    for (int from = 0; from < references.size(); from += STREAM_PAGE_SIZE) {
+      var page = references.subList(from, Math.min(from + STREAM_PAGE_SIZE, references.size()));
+      ndb.query(CASES_BY_REFERENCE_SQL, Map.of("caseRefs", page), (rs, rowNum) -> mapCaseDetails(rs))
+          .forEach(consumer);
     }
-    log.info("Fetching cases for references: {}", caseRefs);
-    var params = Map.of("caseRefs", caseRefs);
-
-    return ndb.query(
-        """
-        select
-              c.id,
-              reference,
-              c.created_date as created_date,
-              jurisdiction,
-              case_type_id,
-              state,
-              data::text as case_data,
-              security_classification::text,
-              version,
-              last_state_modified_date,
-              coalesce(c.last_modified, c.created_date) as last_modified,
-              supplementary_data::text,
-              case_revision
-         from ccd.case_data c
-         where reference IN (:caseRefs)
-         order by reference asc
-        """,
-        params,
-        (rs, rowNum) -> mapCaseDetails(rs)
-    );
   }
 
-  public DecentralisedCaseDetails getCase(Long caseRef) {
-    var cases = getCases(List.of(caseRef));
-    if (cases.isEmpty()) {
-      throw new ResponseStatusException(HttpStatus.NOT_FOUND,
-          "Case not found");
+  /**
+   * Returns the current case_revision of each requested case that exists, in reference order.
+   */
+  NavigableMap<Long, Long> revisions(List<Long> caseRefs) {
+    NavigableMap<Long, Long> revisions = new TreeMap<>();
+    if (caseRefs == null || caseRefs.isEmpty()) {
+      return revisions;
     }
-    return cases.get(0);
+    ndb.query(
+        "select reference, case_revision from ccd.case_data where reference in (:caseRefs)",
+        Map.of("caseRefs", caseRefs),
+        (RowCallbackHandler) rs -> revisions.put(rs.getLong("reference"), rs.getLong("case_revision"))
+    );
+    return revisions;
   }
 
   DecentralisedCaseDetails caseDetailsAtEvent(long caseRef, long eventId) {
@@ -88,7 +106,7 @@ class CaseDataRepository {
               cd.jurisdiction,
               ce.case_type_id,
               ce.state_id as state,
-              ce.data::text as case_data,
+              ccd.case_event_data(ce.data, ce.data_delta, ce.data_checkpoint_id)::text as case_data,
               ce.security_classification::text,
               ce.version as version,
               ce.created_date as last_state_modified_date,
@@ -112,8 +130,15 @@ class CaseDataRepository {
         ));
   }
 
+  /**
+   * Inserts or updates the case row for a submitted event and returns the saved case.
+   *
+   * <p>The saved row's metadata comes back from the statement itself. When the event wrote new data the in-memory
+   * {@code dataUpdate} is reused as the saved data rather than re-reading and re-parsing the blob just written.
+   * The id of the event being submitted is reserved in the same round trip.
+   */
   @SneakyThrows
-  long upsertCase(DecentralisedCaseEvent event, Optional<JsonNode> dataUpdate) {
+  SavedCase upsertCase(DecentralisedCaseEvent event, Optional<JsonNode> dataUpdate) {
     final String sql = """
         insert into ccd.case_data (
             last_modified,
@@ -172,7 +197,23 @@ class CaseDataRepository {
                                          else case_data.last_state_modified_date
                                        end
             where case_data.version = excluded.version
-            returning id;
+            returning
+                id,
+                reference,
+                created_date,
+                jurisdiction,
+                case_type_id,
+                state,
+                -- Written data is already held by the caller; only an untouched blob needs returning.
+                case when :has_data then null else data::text end as case_data,
+                security_classification::text,
+                version,
+                last_state_modified_date,
+                coalesce(last_modified, created_date) as last_modified,
+                supplementary_data::text,
+                case_revision,
+                -- Reserved up front so the event and its dependants can be inserted in a single statement.
+                nextval('ccd.case_event_id_seq') as case_event_id;
         """;
 
     Map<String, Object> params = new HashMap<>();
@@ -189,7 +230,10 @@ class CaseDataRepository {
     params.put("enforced_supplementary_data",
         serialiseEnforcedSupplementaryData(event.getCaseDetails().getCaseTypeId()));
 
-    return ndb.queryForObject(sql, params, Long.class);
+    return ndb.queryForObject(sql, params, (rs, rowNum) -> new SavedCase(
+        mapCaseDetails(rs, dataUpdate.isPresent() ? fields(dataUpdate.get()) : readCaseData(rs)),
+        rs.getLong("case_event_id")
+    ));
   }
 
   @SneakyThrows
@@ -208,8 +252,12 @@ class CaseDataRepository {
     return defaultMapper.writeValueAsString(node);
   }
 
+  DecentralisedCaseDetails mapCaseDetails(ResultSet rs) throws SQLException {
+    return mapCaseDetails(rs, readCaseData(rs));
+  }
+
   @SneakyThrows
-  private DecentralisedCaseDetails mapCaseDetails(ResultSet rs) throws SQLException {
+  private DecentralisedCaseDetails mapCaseDetails(ResultSet rs, Map<String, JsonNode> data) throws SQLException {
     Long reference = rs.getObject("reference", Long.class);
     String state = rs.getString("state");
 
@@ -224,8 +272,7 @@ class CaseDataRepository {
     caseDetails.setLastModified(rs.getObject("last_modified", LocalDateTime.class));
     caseDetails.setLastStateModifiedDate(rs.getObject("last_state_modified_date", LocalDateTime.class));
 
-    var caseDataJson = rs.getString("case_data");
-    caseDetails.setData(defaultMapper.readValue(caseDataJson, JSON_NODE_MAP));
+    caseDetails.setData(data);
     caseDetails.setDataClassification(Map.of());
 
     var supplementaryDataJson = rs.getString("supplementary_data");
@@ -242,4 +289,20 @@ class CaseDataRepository {
     response.setRevision(revision);
     return response;
   }
+
+  @SneakyThrows
+  private Map<String, JsonNode> readCaseData(ResultSet rs) throws SQLException {
+    return defaultMapper.readValue(rs.getString("case_data"), JSON_NODE_MAP);
+  }
+
+  private static Map<String, JsonNode> fields(JsonNode data) {
+    Map<String, JsonNode> fields = new LinkedHashMap<>();
+    data.properties().forEach(field -> fields.put(field.getKey(), field.getValue()));
+    return fields;
+  }
+
+  /**
+   * The case as saved by {@link #upsertCase} and the id reserved for the event being submitted against it.
+   */
+  record SavedCase(DecentralisedCaseDetails caseDetails, long caseEventId) {}
 }
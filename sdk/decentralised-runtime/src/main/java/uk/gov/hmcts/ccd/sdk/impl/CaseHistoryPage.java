@@ -0,0 +1,17 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedAuditEvent;
+
+/**
+ * One page of a case's history, newest first, whose events carry no case data.
+ *
+ * @param events the events on this page
+ * @param nextCursor the {@code before} cursor for the next page, or null if this is the last one
+ */
+record CaseHistoryPage(
+    @JsonProperty("events") List<DecentralisedAuditEvent> events,
+    @JsonProperty("next_cursor") Long nextCursor
+) {
+}
@@ -3,10 +3,14 @@ package uk.gov.hmcts.ccd.sdk.impl;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.ResolvableType;
@@ -37,32 +41,52 @@ class CaseProjectionService {
   private final Map<String, CaseViewBinding> bindings;
   private final DefinitionRegistry definitionRegistry;
   private final GlobalSearchProcessorService globalSearchProcessorService;
+  private final CaseSnapshotCache snapshotCache;
 
   CaseProjectionService(CaseDataRepository caseDataRepository,
                         @Qualifier(CcdCaseDataMapperConfiguration.CCD_CASE_DATA_OBJECT_MAPPER)
                         ObjectMapper mapper,
                         List<CaseView<?, ?>> caseViews,
                         ResolvedConfigRegistry configRegistry,
-                        DefinitionRegistry definitionRegistry) {
+                        DefinitionRegistry definitionRegistry,
+                        CaseSnapshotCache snapshotCache) {
     this.caseDataRepository = caseDataRepository;
+    this.snapshotCache = snapshotCache;
     this.mapper = mapper;
     this.definitionRegistry = definitionRegistry;
     this.globalSearchProcessorService = new GlobalSearchProcessorService(new DefaultObjectMapperService(mapper));
     this.bindings = buildBindings(caseViews, configRegistry.asMap());
   }
 
-  DecentralisedCaseDetails load(long caseRef) {
-    DecentralisedCaseDetails raw = caseDataRepository.getCase(caseRef);
-    return applyProjection(raw);
-  }
+  /**
+   * Projects each requested case and passes it to {@code consumer} as soon as its row has been read.
+   *
+   * <p>With the snapshot cache enabled the current revisions are probed first, cases still at their cached
+   * revision are served from the cache and only the rest are read and projected. Cases are passed on in
+   * reference order either way.
+   */
+  void stream(List<Long> caseRefs, Consumer<DecentralisedCaseDetails> consumer) {
+    if (!snapshotCache.enabled()) {
+      caseDataRepository.streamCases(caseRefs, raw -> consumer.accept(applyProjection(raw)));
+      return;
+    }
 
-  List<DecentralisedCaseDetails> load(List<Long> caseRefs) {
-    return caseDataRepository.getCases(caseRefs).stream()
-        .map(this::applyProjection)
-        .collect(Collectors.toList());
+    NavigableMap<Long, byte[]> hits = new TreeMap<>();
+    List<Long> misses = new ArrayList<>();
+    caseDataRepository.revisions(caseRefs).forEach((reference, revision) -> snapshotCache.find(reference, revision)
+        .ifPresentOrElse(json -> hits.put(reference, json), () -> misses.add(reference)));
+
+    caseDataRepository.streamCases(misses, raw -> {
+      long reference = raw.getCaseDetails().getReference();
+      emitCached(hits.headMap(reference, false), consumer);
+      var projected = applyProjection(raw);
+      snapshotCache.put(projected);
+      consumer.accept(projected);
+    });
+    emitCached(hits, consumer);
   }
 
-  private DecentralisedCaseDetails applyProjection(DecentralisedCaseDetails raw) {
+  DecentralisedCaseDetails applyProjection(DecentralisedCaseDetails raw) {
     var caseDetails = raw.getCaseDetails();
     long reference = caseDetails.getReference();
     String caseTypeId = caseDetails.getCaseTypeId();
@@ -93,6 +117,14 @@ class CaseProjectionService {
     return raw;
   }
 
+  private void emitCached(NavigableMap<Long, byte[]> hits, Consumer<DecentralisedCaseDetails> consumer) {
+    var entries = hits.entrySet().iterator();
+    while (entries.hasNext()) {
+      consumer.accept(snapshotCache.read(entries.next().getValue()));
+      entries.remove();
+    }
+  }
+
   private Map<String, CaseViewBinding> buildBindings(List<CaseView<?, ?>> caseViews,
                                                      Map<String, ResolvedCCDConfig<?, ?, ?>> configs) {
     if (caseViews == null || caseViews.isEmpty()) {
@@ -0,0 +1,116 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Optional;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseDetails;
+
+/**
+ * Optional cache of projected cases keyed on reference, holding one revision of each case.
+ *
+ * <p>Every update to a case_data row increments its revision, so an entry is only served after a probe has shown
+ * the case is still at the cached revision. Entries hold the serialised JSON, weighed by its size, and each hit is
+ * read back into fresh details so callers are free to mutate what they get. Caching is only sound for services
+ * whose {@code CaseView} output depends on nothing but the case row, so it is off unless a service enables it.
+ * A superseded revision is dropped as {@link CaseChangeListener} hears of writes made by any replica. Only
+ * {@link CaseProjectionService#stream} reads from the cache; submissions and history reads go to the database.
+ */
+@Slf4j
+@Service
+class CaseSnapshotCache implements CaseChangeSubscriber {
+
+  static final String METRIC_NAME = "ccd.case-cache";
+
+  private final ObjectMapper defaultMapper;
+  private final Cache<Long, Entry> cache;
+  private final StatsCounter stats = new ConcurrentStatsCounter();
+
+  CaseSnapshotCache(ObjectMapper defaultMapper,
+                    @Value("${ccd.decentralised-runtime.case-cache.enabled:false}") boolean enabled,
+                    @Value("${ccd.decentralised-runtime.case-cache.max-size-bytes:67108864}") long maxSizeBytes,
+                    ObjectProvider<MeterRegistry> meterRegistry) {
+    this.defaultMapper = defaultMapper;
+    if (!enabled) {
+      this.cache = null;
+      return;
+    }
+    if (maxSizeBytes < 1) {
+      throw new IllegalArgumentException(
+          "ccd.decentralised-runtime.case-cache.max-size-bytes must be greater than zero");
+    }
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(maxSizeBytes)
+        .weigher((Long reference, Entry entry) -> entry.json().length)
+        .recordStats(() -> stats)
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), cache, METRIC_NAME);
+    log.info("Projected case cache enabled with a maximum size of {} bytes", maxSizeBytes);
+  }
+
+  boolean enabled() {
+    return cache != null;
+  }
+
+  /**
+   * Returns the cached JSON for a case if it was cached at {@code revision}.
+   */
+  Optional<byte[]> find(long reference, long revision) {
+    // Read through the map view, which records no stats, so that a case cached at another revision counts as a miss.
+    Entry entry = cache.asMap().get(reference);
+    if (entry == null || entry.revision() != revision) {
+      stats.recordMisses(1);
+      return Optional.empty();
+    }
+    stats.recordHits(1);
+    return Optional.of(entry.json());
+  }
+
+  @SneakyThrows
+  DecentralisedCaseDetails read(byte[] json) {
+    return defaultMapper.readValue(json, DecentralisedCaseDetails.class);
+  }
+
+  /**
+   * Caches projected details at their revision. Callers must only pass details that have been committed, as a
+   * rolled back revision number is reused by the next successful write. A later revision already cached is kept.
+   */
+  @SneakyThrows
+  void put(DecentralisedCaseDetails details) {
+    var entry = new Entry(details.getRevision(), defaultMapper.writeValueAsBytes(details));
+    cache.asMap().merge(details.getCaseDetails().getReference(), entry,
+        (cached, candidate) -> candidate.revision() >= cached.revision() ? candidate : cached);
+  }
+
+  @Override
+  public boolean subscribed() {
+    return enabled();
+  }
+
+  /**
+   * Drops a superseded revision of a case changed here or on another replica. Lookups are already validated
+   * against the current revision, so this frees the space it holds rather than preventing stale reads. The
+   * current revision is kept, as the submission that wrote it may already have cached it.
+   */
+  @Override
+  public void caseChanged(long reference, long currentRevision) {
+    cache.asMap().computeIfPresent(reference, (key, entry) -> entry.revision() < currentRevision ? null : entry);
+  }
+
+  @Override
+  public void changesMayHaveBeenMissed() {
+    cache.invalidateAll();
+  }
+
+  private record Entry(long revision, byte[] json) {}
+}
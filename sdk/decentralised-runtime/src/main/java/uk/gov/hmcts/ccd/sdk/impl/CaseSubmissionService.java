@@ -9,7 +9,6 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 import uk.gov.hmcts.ccd.data.casedetails.SecurityClassification;
 import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseDetails;
@@ -29,10 +28,11 @@ public class CaseSubmissionService {
   private final LegacyCallbackSubmissionHandler legacyHandler;
   private final IdamService idam;
   private final IdempotencyEnforcer idempotencyEnforcer;
-  private final TransactionTemplate transactionTemplate;
+  private final SubmissionBatcher submissionBatcher;
   private final AuditEventService auditEventService;
   private final CaseDataRepository caseDataRepository;
   private final CaseProjectionService caseProjectionService;
+  private final CaseSnapshotCache snapshotCache;
 
   public DecentralisedSubmitEventResponse submit(DecentralisedCaseEvent event,
                                                  String authorisation,
@@ -43,10 +43,15 @@ public class CaseSubmissionService {
 
     try {
       // The result of the transaction can be either an idempotency hit or a new submission.
-      TransactionResult transactionResult = transactionTemplate.execute(status ->
+      TransactionResult transactionResult = submissionBatcher.execute(event.getCaseDetails().getReference(), () ->
           executeSubmissionInTransaction(event, user, handler, idempotencyKey)
       );
 
+      // Only committed revisions may be cached, as a rolled back revision number is reused by the next write.
+      if (snapshotCache.enabled()) {
+        transactionResult.submissionOutcome().ifPresent(outcome -> snapshotCache.put(outcome.savedCaseDetails()));
+      }
+
       return transactionResult.existingEventId()
           .map(eventId -> replayIdempotentRequest(event.getCaseDetails().getReference(), eventId))
           .orElseGet(() -> buildSuccessResponse(transactionResult.submissionOutcome().orElseThrow()));
@@ -80,12 +85,13 @@ public class CaseSubmissionService {
     applyHandlerChanges(event, handlerResult);
 
     // Bookkeeping: update case_data metadata and optionally the legacy json blob
-    upsertCase(event, handlerResult.dataUpdate());
-    DecentralisedCaseDetails savedCaseDetails = caseProjectionService.load(event.getCaseDetails().getReference());
+    var savedCase = upsertCase(event, handlerResult.dataUpdate());
+    DecentralisedCaseDetails savedCaseDetails = caseProjectionService.applyProjection(savedCase.caseDetails());
     auditEventService.saveAuditRecord(
         event,
         user,
         savedCaseDetails.getCaseDetails(),
+        savedCase.caseEventId(),
         idempotencyKey,
         handlerResult.significantItem()
     );
@@ -141,9 +147,9 @@ public class CaseSubmissionService {
     );
   }
 
-  private void upsertCase(DecentralisedCaseEvent event, Optional<JsonNode> dataUpdate) {
+  private CaseDataRepository.SavedCase upsertCase(DecentralisedCaseEvent event, Optional<JsonNode> dataUpdate) {
     try {
-      caseDataRepository.upsertCase(event, dataUpdate);
+      return caseDataRepository.upsertCase(event, dataUpdate);
     } catch (EmptyResultDataAccessException e) {
       throw new ResponseStatusException(HttpStatus.CONFLICT, "Case was updated concurrently", e);
     }
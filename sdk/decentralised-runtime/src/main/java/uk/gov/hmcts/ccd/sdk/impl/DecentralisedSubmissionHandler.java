@@ -57,10 +57,7 @@ class DecentralisedSubmissionHandler implements CaseSubmissionHandler {
 
     var config = registry.getRequired(caseType);
 
-    Object domainCaseData = mapper.convertValue(
-        event.getCaseDetails().getData(),
-        config.getCaseClass()
-    );
+    Object domainCaseData = CaseDataBinder.read(mapper, event.getCaseDetails().getData(), config.getCaseClass());
     long caseRef = event.getCaseDetails().getReference();
 
     // TODO: revisit when CCD resumes sending query params; referer header is absent at the moment.
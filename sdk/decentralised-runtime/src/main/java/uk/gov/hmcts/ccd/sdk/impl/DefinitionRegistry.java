@@ -1,60 +1,227 @@
 package uk.gov.hmcts.ccd.sdk.impl;
 
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.stereotype.Component;
+import uk.gov.hmcts.ccd.domain.model.definition.CaseEventDefinition;
 import uk.gov.hmcts.ccd.domain.model.definition.CaseTypeDefinition;
 
+/**
+ * The case type definitions generated into the snapshot directory, loaded at startup.
+ *
+ * <p>Lookups read an immutable snapshot without locking, with each case type's events indexed by id. While no
+ * snapshots have been found, each lookup looks at the directory again. With hot reload enabled the directory is
+ * watched and a fresh snapshot swapped in whenever its files change.
+ */
 @Component
 @Slf4j
-class DefinitionRegistry {
+class DefinitionRegistry implements SmartLifecycle {
+
+  // Lets an editor or the config generator finish writing every file before they are read.
+  private static final long RELOAD_SETTLE_MS = 200;
+  private static final long WATCH_RETRY_MS = 5_000;
 
   private final ObjectMapper mapper;
-  private Map<String, CaseTypeDefinition> definitions = Map.of();
+  private final Path directory;
+  private final boolean hotReload;
+  private final boolean virtualThreads;
+  private final AtomicReference<Definitions> definitions = new AtomicReference<>();
+  private volatile boolean running;
+  private ExecutorService watcher;
 
-  DefinitionRegistry(@Qualifier("ccd_mapper") ObjectMapper definitionMapper) {
+  DefinitionRegistry(@Qualifier("ccd_mapper") ObjectMapper definitionMapper,
+                     @Value("${ccd.decentralised-runtime.definitions.directory:build/cftlib/definition-snapshots}")
+                     String directory,
+                     @Value("${ccd.decentralised-runtime.definitions.hot-reload:false}") boolean hotReload,
+                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
     this.mapper = definitionMapper;
+    this.directory = Path.of(directory);
+    this.hotReload = hotReload;
+    this.virtualThreads = virtualThreads;
+    Definitions loaded = load();
+    if (loaded.caseTypes().isEmpty()) {
+      log.warn("DefinitionRegistry: no definition snapshots found in {}; will look again on each lookup until some are",
+          this.directory.toAbsolutePath());
+    }
+    this.definitions.set(loaded);
   }
 
   Optional<CaseTypeDefinition> find(String caseTypeId) {
-    return Optional.ofNullable(loadDefinitions().get(caseTypeId));
+    return Optional.ofNullable(definitions().caseTypes().get(caseTypeId));
   }
 
   /**
-   * Lazily loads case type definitions from the generated snapshot directory.
+   * Finds an event of a case type by id without scanning the case type's events.
    */
-  @SneakyThrows
-  synchronized Map<String, CaseTypeDefinition> loadDefinitions() {
-    if (!this.definitions.isEmpty()) {
-      return this.definitions;
+  Optional<CaseEventDefinition> findEvent(String caseTypeId, String eventId) {
+    Map<String, CaseEventDefinition> events = definitions().events().get(caseTypeId);
+    CaseEventDefinition event = events == null ? null : events.get(eventId);
+    if (event != null) {
+      return Optional.of(event);
+    }
+    // Fall back to CCD's own lookup, which decides how other spellings of an id match.
+    return find(caseTypeId).flatMap(caseType -> caseType.findCaseEvent(eventId));
+  }
+
+  /**
+   * The current snapshot or, while it is still empty, a fresh load of the directory. Snapshots can be written after
+   * startup, as cftlib does, so an empty directory is looked at again rather than trusted for the life of the process.
+   */
+  private Definitions definitions() {
+    Definitions current = definitions.get();
+    if (!current.caseTypes().isEmpty()) {
+      return current;
+    }
+    Definitions loaded;
+    try {
+      loaded = load();
+    } catch (Exception ex) {
+      log.debug("Failed to load definition snapshots from {}; will try again", directory.toAbsolutePath(), ex);
+      return current;
+    }
+    if (loaded.caseTypes().isEmpty()) {
+      return current;
+    }
+    // Whoever swaps first wins; a snapshot swapped in meanwhile, whether by another lookup or a hot reload, is kept.
+    definitions.compareAndSet(current, loaded);
+    return definitions.get();
+  }
+
+  @Override
+  public void start() {
+    if (!hotReload || running) {
+      return;
+    }
+    running = true;
+    watcher = Executors.newSingleThreadExecutor(
+        (virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform()).name("ccd-definition-watcher").factory());
+    watcher.submit(this::watch);
+  }
+
+  @Override
+  public void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    watcher.shutdownNow();
+    try {
+      if (!watcher.awaitTermination(5, TimeUnit.SECONDS)) {
+        log.warn("Definition watcher did not stop within 5s");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
     }
+  }
 
-    var loaded = new HashMap<String, CaseTypeDefinition>();
-    File[] jsonFiles = new File("build/cftlib/definition-snapshots")
-        .listFiles((dir, name) -> name.endsWith(".json"));
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @SneakyThrows
+  private Definitions load() {
+    var caseTypes = new HashMap<String, CaseTypeDefinition>();
+    File[] jsonFiles = directory.toFile().listFiles((dir, name) -> name.endsWith(".json"));
 
     if (jsonFiles != null) {
       for (File file : jsonFiles) {
         String fileNameWithoutExtension = file.getName().substring(0, file.getName().lastIndexOf("."));
         CaseTypeDefinition definition = mapper.readValue(file, CaseTypeDefinition.class);
-        loaded.put(fileNameWithoutExtension, definition);
+        caseTypes.put(fileNameWithoutExtension, definition);
+      }
+    }
+
+    if (!caseTypes.isEmpty()) {
+      log.info("DefinitionRegistry loaded {} case type definitions", caseTypes.size());
+    }
+    return Definitions.of(caseTypes);
+  }
+
+  private void watch() {
+    while (running) {
+      try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+        directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        log.info("Watching {} for definition changes", directory.toAbsolutePath());
+        // Anything written before the watch was in place would otherwise be missed.
+        reload();
+        while (running) {
+          WatchKey key = watchService.take();
+          Thread.sleep(RELOAD_SETTLE_MS);
+          key.pollEvents();
+          reload();
+          if (!key.reset()) {
+            break;
+          }
+        }
+      } catch (InterruptedException | ClosedWatchServiceException ex) {
+        return;
+      } catch (NoSuchFileException ex) {
+        log.debug("Definition snapshot directory {} does not exist yet", directory.toAbsolutePath());
+        sleepBeforeRetry();
+      } catch (IOException ex) {
+        log.warn("Failed to watch {} for definition changes; retrying", directory.toAbsolutePath(), ex);
+        sleepBeforeRetry();
       }
     }
+  }
 
-    if (loaded.isEmpty()) {
-      log.warn("DefinitionRegistry: no definition snapshots found");
-      this.definitions = Map.of();
-      return this.definitions;
+  private void reload() {
+    try {
+      definitions.set(load());
+    } catch (Exception ex) {
+      // Most likely a file caught half written; the watch fires again once it is complete.
+      log.warn("Failed to reload definition snapshots; keeping those already loaded", ex);
     }
+  }
 
-    this.definitions = Map.copyOf(loaded);
-    log.info("DefinitionRegistry loaded {} case type definitions", this.definitions.size());
-    return this.definitions;
+  private void sleepBeforeRetry() {
+    try {
+      Thread.sleep(WATCH_RETRY_MS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+
+  private record Definitions(Map<String, CaseTypeDefinition> caseTypes,
+                             Map<String, Map<String, CaseEventDefinition>> events) {
+
+    static Definitions of(Map<String, CaseTypeDefinition> caseTypes) {
+      var events = new HashMap<String, Map<String, CaseEventDefinition>>();
+      caseTypes.forEach((caseTypeId, caseType) -> {
+        var byId = new HashMap<String, CaseEventDefinition>();
+        if (caseType.getEvents() != null) {
+          // findCaseEvent returns the first event with an id, so keep the first of any duplicates.
+          caseType.getEvents().stream()
+              .filter(event -> event.getId() != null)
+              .forEach(event -> byId.putIfAbsent(event.getId(), event));
+        }
+        events.put(caseTypeId, Map.copyOf(byId));
+      });
+      return new Definitions(Map.copyOf(caseTypes), Map.copyOf(events));
+    }
   }
 }
@@ -0,0 +1,193 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import uk.gov.hmcts.ccd.sdk.External;
+
+/**
+ * The JSON paths of a case class's {@link External} properties, worked out once from the serialisers Jackson builds
+ * for it, so that they can be dropped from case data already in that class's serialised shape by copying the tree
+ * rather than binding and re-serialising the whole case.
+ *
+ * <p>Paths are only known where each property's declared type decides how it is written. Case classes holding
+ * {@code Object}, abstract, polymorphic or recursive types, unwrapped or any-getter properties or custom serialisers
+ * have no paths, and must be filtered by serialising them through {@link FilterExternalFieldsInspector}. A type is
+ * polymorphic if it is written with type information or has subtypes declared to or registered with Jackson, as the
+ * case data may then hold a subclass with {@code @External} properties of its own.
+ */
+final class ExternalFieldPaths {
+
+  private static final PathNode NONE = new PathNode(false, Map.of(), null);
+  private static final PathNode EXTERNAL = new PathNode(true, Map.of(), null);
+
+  private final PathNode root;
+
+  private ExternalFieldPaths(PathNode root) {
+    this.root = root;
+  }
+
+  /**
+   * Finds the {@code @External} paths of {@code caseClass} as {@code mapper} serialises it, if they can be known.
+   */
+  static Optional<ExternalFieldPaths> of(ObjectMapper mapper, Class<?> caseClass) {
+    try {
+      return new Resolver(mapper).resolve(mapper.constructType(caseClass)).map(ExternalFieldPaths::new);
+    } catch (JsonMappingException ex) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Copies case data without its {@code @External} properties. Subtrees holding none are shared with {@code data}
+   * rather than copied, so neither should be modified afterwards.
+   */
+  ObjectNode filter(Map<String, JsonNode> data, JsonNodeFactory nodeFactory) {
+    ObjectNode filtered = nodeFactory.objectNode();
+    data.forEach((name, value) -> putFiltered(filtered, name, value, root, nodeFactory));
+    return filtered;
+  }
+
+  private static JsonNode filter(JsonNode node, PathNode paths, JsonNodeFactory nodeFactory) {
+    if (paths == NONE) {
+      return node;
+    }
+    if (node.isArray()) {
+      ArrayNode filtered = nodeFactory.arrayNode(node.size());
+      node.forEach(element -> filtered.add(filter(element, paths, nodeFactory)));
+      return filtered;
+    }
+    if (node.isObject()) {
+      ObjectNode filtered = nodeFactory.objectNode();
+      node.properties().forEach(field ->
+          putFiltered(filtered, field.getKey(), field.getValue(), paths, nodeFactory));
+      return filtered;
+    }
+    return node;
+  }
+
+  private static void putFiltered(ObjectNode target, String name, JsonNode value, PathNode paths,
+                                  JsonNodeFactory nodeFactory) {
+    PathNode child = paths.child(name);
+    if (child.external()) {
+      return;
+    }
+    target.set(name, value == null ? null : filter(value, child, nodeFactory));
+  }
+
+  /**
+   * The external properties below one JSON value. Arrays are transparent, so a collection shares the node of its
+   * elements, and map entries share {@code anyProperty}.
+   */
+  private record PathNode(boolean external, Map<String, PathNode> properties, PathNode anyProperty) {
+
+    PathNode child(String name) {
+      PathNode child = properties.get(name);
+      if (child != null) {
+        return child;
+      }
+      return anyProperty == null ? NONE : anyProperty;
+    }
+  }
+
+  private static final class Resolver {
+    private final ObjectMapper mapper;
+    private final Set<JavaType> resolving = new HashSet<>();
+
+    private Resolver(ObjectMapper mapper) {
+      this.mapper = mapper;
+    }
+
+    /**
+     * Resolves the paths below a value of {@code type}, or nothing if its serialised shape cannot be known up front.
+     */
+    private Optional<PathNode> resolve(JavaType type) throws JsonMappingException {
+      if (type.isContainerType() || type.isReferenceType()) {
+        Optional<PathNode> content = resolve(type.getContentType());
+        if (type.isMapLikeType()) {
+          return content.map(node -> node == NONE ? NONE : new PathNode(false, Map.of(), node));
+        }
+        return content;
+      }
+      Class<?> raw = type.getRawClass();
+      if (raw == Object.class || raw.isInterface()) {
+        return Optional.empty();
+      }
+      if (isLeaf(raw)) {
+        return Optional.of(NONE);
+      }
+      if (Modifier.isAbstract(raw.getModifiers())
+          || isPolymorphic(type)
+          || mapper.getSerializationConfig().introspect(type).findAnyGetter() != null
+          || !resolving.add(type)) {
+        return Optional.empty();
+      }
+      try {
+        JsonSerializer<Object> serializer = mapper.getSerializerProviderInstance().findValueSerializer(type);
+        if (!(serializer instanceof BeanSerializerBase) || serializer.isUnwrappingSerializer()) {
+          return Optional.empty();
+        }
+        return resolveProperties(serializer.properties());
+      } finally {
+        resolving.remove(type);
+      }
+    }
+
+    private Optional<PathNode> resolveProperties(Iterator<PropertyWriter> writers) throws JsonMappingException {
+      Map<String, PathNode> properties = new HashMap<>();
+      while (writers.hasNext()) {
+        PropertyWriter writer = writers.next();
+        if (!(writer instanceof BeanPropertyWriter property) || property.isUnwrapping()
+            || property.getTypeSerializer() != null) {
+          return Optional.empty();
+        }
+        if (property.getAnnotation(External.class) != null) {
+          properties.put(property.getName(), EXTERNAL);
+          continue;
+        }
+        Optional<PathNode> value = resolve(property.getType());
+        if (value.isEmpty()) {
+          return Optional.empty();
+        }
+        if (value.get() != NONE) {
+          properties.put(property.getName(), value.get());
+        }
+      }
+      return Optional.of(properties.isEmpty() ? NONE : new PathNode(false, Map.copyOf(properties), null));
+    }
+
+    private boolean isPolymorphic(JavaType type) throws JsonMappingException {
+      if (mapper.getSerializerProviderInstance().findTypeSerializer(type) != null) {
+        return true;
+      }
+      SerializationConfig config = mapper.getSerializationConfig();
+      AnnotatedClass annotated = config.introspectClassAnnotations(type).getClassInfo();
+      // The subtypes found always include the type itself.
+      return mapper.getSubtypeResolver().collectAndResolveSubtypesByClass(config, annotated).size() > 1;
+    }
+
+    private static boolean isLeaf(Class<?> raw) {
+      return raw.isPrimitive()
+          || raw.isEnum()
+          || raw.getName().startsWith("java.")
+          || JsonNode.class.isAssignableFrom(raw);
+    }
+  }
+}
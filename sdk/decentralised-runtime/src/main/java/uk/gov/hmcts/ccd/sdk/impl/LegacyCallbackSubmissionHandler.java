@@ -6,7 +6,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import java.util.Map;
 import java.util.Optional;
-import lombok.SneakyThrows;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -44,6 +44,7 @@ class LegacyCallbackSubmissionHandler implements CaseSubmissionHandler {
   private final CcdCallbackExecutor executor;
   private final ObjectMapper mapper;
   private final ObjectMapper filteredMapper;
+  private final Map<Class<?>, Optional<ExternalFieldPaths>> externalFieldPaths = new ConcurrentHashMap<>();
   private final ObjectProvider<CdamAttachService> cdamAttachService;
 
   LegacyCallbackSubmissionHandler(ResolvedConfigRegistry registry,
@@ -56,6 +57,7 @@ class LegacyCallbackSubmissionHandler implements CaseSubmissionHandler {
     this.mapper = mapper;
     this.filteredMapper = mapper.copy().setAnnotationIntrospector(new FilterExternalFieldsInspector());
     this.cdamAttachService = cdamAttachService;
+    registry.getAll().forEach(config -> externalFieldPaths(config.getCaseClass()));
   }
 
   @Override
@@ -78,7 +80,7 @@ class LegacyCallbackSubmissionHandler implements CaseSubmissionHandler {
 
     var errors = submitResponse.getErrors();
     var warnings = submitResponse.getWarnings();
-    JsonNode dataSnapshot = snapshotWithFilteredFields(event);
+    JsonNode dataSnapshot = snapshotWithFilteredFields(event, outcome.dataSerialisedFromCaseClass());
     var state = Optional.ofNullable(event.getCaseDetails().getState());
     var securityClassification = Optional.ofNullable(event.getCaseDetails().getSecurityClassification())
         .map(SecurityClassification::name)
@@ -117,12 +119,15 @@ class LegacyCallbackSubmissionHandler implements CaseSubmissionHandler {
     var response = new DecentralisedSubmitEventResponse();
     EventMetadata eventMetadata = null;
     SignificantItem significantItem = null;
+    boolean dataSerialisedFromCaseClass = false;
 
     if (eventConfig.getAboutToSubmitCallback() != null) {
       CallbackRequest request = buildCallbackRequest(event);
       AboutToStartOrSubmitResponse callbackResponse = executor.aboutToSubmit(request);
       eventMetadata = callbackResponse.getEventMetadata();
       significantItem = callbackResponse.getSignificantItem();
+      dataSerialisedFromCaseClass = registry.getRequired(caseType).getCaseClass()
+          .isInstance(callbackResponse.getData());
 
       Map<String, JsonNode> normalisedData = callbackResponse.getData() == null
           ? Map.of()
@@ -143,7 +148,8 @@ class LegacyCallbackSubmissionHandler implements CaseSubmissionHandler {
     }
 
     boolean hasSubmitted = eventConfig.getSubmittedCallback() != null;
-    return new LegacySubmitOutcome(response, eventMetadata, significantItem, hasSubmitted);
+    return new LegacySubmitOutcome(response, eventMetadata, significantItem, hasSubmitted,
+        dataSerialisedFromCaseClass);
   }
 
   private Optional<SubmittedCallbackResponse> runSubmittedCallback(DecentralisedCaseEvent event) {
@@ -193,7 +199,8 @@ class LegacyCallbackSubmissionHandler implements CaseSubmissionHandler {
   private record LegacySubmitOutcome(DecentralisedSubmitEventResponse response,
                                      EventMetadata eventMetadata,
                                      SignificantItem significantItem,
-                                     boolean runSubmittedCallback) {}
+                                     boolean runSubmittedCallback,
+                                     boolean dataSerialisedFromCaseClass) {}
 
   private void attachNewCdamDocuments(DecentralisedCaseEvent event,
                                       String authorisation,
@@ -224,16 +231,32 @@ class LegacyCallbackSubmissionHandler implements CaseSubmissionHandler {
     return baseline;
   }
 
-  @SneakyThrows
-  private JsonNode snapshotWithFilteredFields(DecentralisedCaseEvent event) {
+  JsonNode snapshotWithFilteredFields(DecentralisedCaseEvent event) {
+    return snapshotWithFilteredFields(event, false);
+  }
+
+  /**
+   * Builds the persisted case data with {@code @External} fields removed. Data the about-to-submit callback returned
+   * as the case class is already in its serialised shape, so the external paths are simply left out of a copy of
+   * the tree; anything else is bound to the case class and serialised through the filtering mapper.
+   */
+  JsonNode snapshotWithFilteredFields(DecentralisedCaseEvent event, boolean dataSerialisedFromCaseClass) {
     Map<String, JsonNode> currentData = event.getCaseDetails().getData();
 
     var caseType = event.getEventDetails().getCaseType();
     var caseClass = registry.getRequired(caseType).getCaseClass();
 
-    Object domainCaseData = mapper.convertValue(currentData, caseClass);
+    if (dataSerialisedFromCaseClass && currentData != null) {
+      var paths = externalFieldPaths(caseClass);
+      if (paths.isPresent()) {
+        return paths.get().filter(currentData, mapper.getNodeFactory());
+      }
+    }
+    Object domainCaseData = CaseDataBinder.read(mapper, currentData, caseClass);
+    return CaseDataBinder.write(filteredMapper, domainCaseData);
+  }
 
-    String filteredJson = filteredMapper.writeValueAsString(domainCaseData);
-    return mapper.readTree(filteredJson);
+  private Optional<ExternalFieldPaths> externalFieldPaths(Class<?> caseClass) {
+    return externalFieldPaths.computeIfAbsent(caseClass, type -> ExternalFieldPaths.of(mapper, type));
   }
 }
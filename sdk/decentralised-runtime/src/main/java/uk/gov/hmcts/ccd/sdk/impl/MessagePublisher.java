@@ -7,8 +7,6 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
-import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
-import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.ccd.config.MessagingProperties;
 import uk.gov.hmcts.ccd.domain.model.definition.CaseEventDefinition;
@@ -29,23 +27,25 @@ class MessagePublisher {
   private final DataBlockGenerator dataBlockGenerator;
   private final DefinitionRegistry definitionRegistry;
   private final ObjectMapper mapper;
-  private final NamedParameterJdbcTemplate db;
 
   @SneakyThrows
   public MessagePublisher(
       MessagingProperties messagingProperties,
-      NamedParameterJdbcTemplate db,
       DefinitionRegistry definitionRegistry,
       @Qualifier("ccd_mapper") ObjectMapper definitionMapper) {
     this.definitionBlockGenerator = new DefinitionBlockGenerator(messagingProperties);
     this.dataBlockGenerator = new DataBlockGenerator();
     this.mapper = definitionMapper;
-    this.db = db;
     this.definitionRegistry = definitionRegistry;
   }
 
+  /**
+   * Builds the message_queue_candidates payload for an event, or empty when the event is not published.
+   *
+   * <p>The candidate row itself is written by {@link AuditEventService} in the same statement as the event.
+   */
   @SneakyThrows
-  public void publishEvent(
+  public Optional<String> buildMessage(
       long caseReference,
       String userId,
       String eventId,
@@ -57,13 +57,13 @@ class MessagePublisher {
     CaseTypeDefinition caseType = definitionRegistry.find(caseDetails.getCaseTypeId()).orElse(null);
     if (caseType == null) {
       log.error("Case type {} is not known", caseDetails.getCaseTypeId());
-      return;
+      return Optional.empty();
     }
 
-    Optional<CaseEventDefinition> opt = caseType.findCaseEvent(eventId);
+    Optional<CaseEventDefinition> opt = definitionRegistry.findEvent(caseDetails.getCaseTypeId(), eventId);
     if (opt.isEmpty() || !opt.get().getPublish()) {
       log.info("Event {} is not marked for publishing, skipping message publication", eventId);
-      return;
+      return Optional.empty();
     }
 
     log.info("Publishing event {} for case {}", eventId, caseReference);
@@ -79,21 +79,7 @@ class MessagePublisher {
     );
 
     // Convert the MessageInformation object to a JSON string
-    String messageInformationJson = mapper.writeValueAsString(info);
-
-    final String SQL = """
-        insert into ccd.message_queue_candidates (reference, message_type, time_stamp, message_information)
-        values (:caseReference, :messageType, :timestamp, :messageInformation::jsonb)
-        """;
-
-    MapSqlParameterSource params = new MapSqlParameterSource();
-    params.addValue("caseReference", caseReference);
-    params.addValue("messageType", "CASE_EVENT");
-    params.addValue("timestamp", timestamp);
-    params.addValue("messageInformation", messageInformationJson);
-
-    db.update(SQL, params);
-    log.info("Successfully published event {} for case {} to message_queue_candidates", eventId, caseReference);
+    return Optional.of(mapper.writeValueAsString(info));
   }
 
   @SneakyThrows
@@ -1,11 +1,15 @@
 package uk.gov.hmcts.ccd.sdk.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -15,6 +19,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedAuditEvent;
 import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseDetails;
 import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseEvent;
@@ -31,14 +36,30 @@ class ServicePersistenceController {
   private final AuditEventService auditEventService;
   private final SupplementaryDataService supplementaryDataService;
   private final CaseProjectionService caseProjectionService;
+  private final ObjectMapper mapper;
 
   @GetMapping(
       value = "/cases",
       produces = "application/json"
   )
-  public List<DecentralisedCaseDetails> getCases(@RequestParam("case-refs") List<Long> caseRefs) {
+  public ResponseEntity<StreamingResponseBody> getCases(@RequestParam("case-refs") List<Long> caseRefs) {
     log.info("Fetching cases for references: {}", caseRefs);
-    return caseProjectionService.load(caseRefs);
+    // Each case is written as soon as it is projected so memory stays flat however many refs are requested.
+    // A failure once the response has started can no longer change its status, so the array is deliberately left
+    // unclosed and the exception propagated: the client then sees an aborted response or invalid JSON rather than a
+    // shorter, well-formed list.
+    StreamingResponseBody body = out -> {
+      try (JsonGenerator generator = mapper.createGenerator(out)) {
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        generator.writeStartArray();
+        caseProjectionService.stream(caseRefs, caseDetails -> writeCase(generator, caseDetails));
+        generator.writeEndArray();
+      }
+    };
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(body);
   }
 
   @PostMapping(
@@ -88,6 +109,26 @@ class ServicePersistenceController {
     return ResponseEntity.ok(auditEventService.loadHistory(caseRef));
   }
 
+  /**
+   * Retrieves a page of the event history for a given case, without each event's case data.
+   *
+   * @param caseRef The case reference number.
+   * @param before The cursor returned with the previous page, if any.
+   * @param limit The maximum number of events to return.
+   * @return The events on the page and the cursor for the next one.
+   */
+  @GetMapping(
+      value = "/cases/{caseRef}/history-page",
+      produces = "application/json"
+  )
+  public ResponseEntity<CaseHistoryPage> loadHistoryPage(
+      @PathVariable("caseRef") long caseRef,
+      @RequestParam(value = "before", required = false) Long before,
+      @RequestParam(value = "limit", defaultValue = "50") int limit) {
+    log.info("Loading history page before event ID {} for case reference: {}", before, caseRef);
+    return ResponseEntity.ok(auditEventService.loadHistoryPage(caseRef, Optional.ofNullable(before), limit));
+  }
+
   /**
    * Retrieves a single event from the history of a given case.
    *
@@ -106,4 +147,8 @@ class ServicePersistenceController {
     return ResponseEntity.ok(event);
   }
 
+  @SneakyThrows
+  private void writeCase(JsonGenerator generator, DecentralisedCaseDetails caseDetails) {
+    mapper.writeValue(generator, caseDetails);
+  }
 }
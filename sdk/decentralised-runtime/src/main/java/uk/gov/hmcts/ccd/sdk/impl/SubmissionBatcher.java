@@ -0,0 +1,324 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Runs case submissions in their own transaction or, when batching is enabled, gathers submissions on distinct cases
+ * arriving within a short window and commits them together, so that a burst of writes such as a bulk action pays for
+ * one commit per batch rather than one per case.
+ *
+ * <p>Each submission in a batch runs within its own savepoint, so one that fails is rolled back and reported to its
+ * caller alone, and callers only hear of their result once the whole batch has committed. A batch never holds two
+ * submissions for the same case, nor a case already being written by another batch, and runs its submissions in case
+ * reference order so that batches lock case rows in a consistent order.
+ *
+ * <p>Every case in a batch stays locked until the batch commits, including while other submissions in the batch wait
+ * on their callbacks, so batching trades the latency of each submission, by up to the window and the time taken by
+ * the rest of its batch, for throughput. Each submission also costs a savepoint round trip, and its writes are still
+ * sent one statement at a time; what a batch saves is the commit. It suits submissions whose handlers are quick,
+ * rather than those waiting on slow callbacks.
+ *
+ * <p>Batched submissions run on the batcher's own threads, with their caller's request attributes and MDC in place.
+ */
+@Slf4j
+@Component
+class SubmissionBatcher implements SmartLifecycle {
+
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionTemplate savepointTemplate;
+  private final boolean enabled;
+  private final int maxBatchSize;
+  private final long maxWaitNanos;
+  private final int concurrency;
+  private final boolean virtualThreads;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition changed = lock.newCondition();
+  private final Deque<Submission<?>> pending = new ArrayDeque<>();
+  private final Set<Long> casesInFlight = new HashSet<>();
+  private boolean collecting;
+  private boolean running;
+  private ExecutorService workers;
+
+  SubmissionBatcher(TransactionTemplate transactionTemplate,
+                    @Value("${ccd.decentralised-runtime.submission-batching.enabled:false}") boolean enabled,
+                    @Value("${ccd.decentralised-runtime.submission-batching.max-batch-size:50}") int maxBatchSize,
+                    @Value("${ccd.decentralised-runtime.submission-batching.max-wait-ms:5}") int maxWaitMs,
+                    @Value("${ccd.decentralised-runtime.submission-batching.concurrency:4}") int concurrency,
+                    @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException(
+          "ccd.decentralised-runtime.submission-batching.max-batch-size must be greater than zero");
+    }
+    if (maxWaitMs < 0) {
+      throw new IllegalArgumentException(
+          "ccd.decentralised-runtime.submission-batching.max-wait-ms must not be negative");
+    }
+    if (concurrency < 1) {
+      throw new IllegalArgumentException(
+          "ccd.decentralised-runtime.submission-batching.concurrency must be greater than zero");
+    }
+    this.transactionTemplate = transactionTemplate;
+    this.savepointTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+    this.savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    this.enabled = enabled;
+    this.maxBatchSize = maxBatchSize;
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+    this.concurrency = concurrency;
+    this.virtualThreads = virtualThreads;
+  }
+
+  /**
+   * Runs {@code work} in a transaction that has committed by the time this returns, rethrowing anything it threw.
+   */
+  @SneakyThrows
+  <T> T execute(long caseReference, Supplier<T> work) {
+    var submission = new Submission<>(caseReference, work);
+    if (!enqueue(submission)) {
+      return transactionTemplate.execute(status -> work.get());
+    }
+    try {
+      return submission.result.get();
+    } catch (ExecutionException e) {
+      throw e.getCause();
+    } catch (CancellationException e) {
+      // Batching stopped before the submission was picked up.
+      return transactionTemplate.execute(status -> work.get());
+    }
+  }
+
+  @Override
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    lock.lock();
+    try {
+      if (running) {
+        return;
+      }
+      workers = Executors.newFixedThreadPool(concurrency,
+          (virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform()).name("ccd-submission-batcher-", 1).factory());
+      for (int i = 0; i < concurrency; i++) {
+        workers.submit(this::work);
+      }
+      running = true;
+      log.info("Batching case submissions, up to {} per batch within {}ms, {} batches at a time",
+          maxBatchSize, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos), concurrency);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void stop() {
+    lock.lock();
+    try {
+      if (!running) {
+        return;
+      }
+      running = false;
+      // Anything not yet in a batch is run by its caller instead.
+      pending.forEach(submission -> submission.result.cancel(false));
+      pending.clear();
+      changed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    // Let batches already under way commit rather than interrupting them.
+    workers.shutdown();
+    try {
+      if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+        log.warn("Submission batches did not finish within 30s");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    lock.lock();
+    try {
+      return running;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean enqueue(Submission<?> submission) {
+    lock.lock();
+    try {
+      if (!running) {
+        return false;
+      }
+      pending.addLast(submission);
+      changed.signalAll();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void work() {
+    List<Submission<?>> batch;
+    while (!(batch = nextBatch()).isEmpty()) {
+      try {
+        run(batch);
+      } finally {
+        release(batch);
+      }
+    }
+  }
+
+  /**
+   * Waits for a submission this worker can take and gathers any others that arrive within the window, or returns
+   * nothing once batching has stopped. Only one worker gathers at a time, so a burst fills one batch rather than
+   * being spread thinly across every worker.
+   */
+  private List<Submission<?>> nextBatch() {
+    List<Submission<?>> batch = new ArrayList<>();
+    lock.lock();
+    try {
+      while (running && collecting) {
+        changed.awaitUninterruptibly();
+      }
+      collecting = true;
+      try {
+        long deadline = 0;
+        while (running && batch.size() < maxBatchSize) {
+          boolean wasEmpty = batch.isEmpty();
+          takeEligible(batch);
+          if (batch.isEmpty()) {
+            changed.awaitUninterruptibly();
+            continue;
+          }
+          if (wasEmpty) {
+            deadline = System.nanoTime() + maxWaitNanos;
+          }
+          long remaining = deadline - System.nanoTime();
+          if (remaining <= 0 || batch.size() == maxBatchSize) {
+            break;
+          }
+          changed.awaitNanos(remaining);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        collecting = false;
+        changed.signalAll();
+      }
+    } finally {
+      lock.unlock();
+    }
+    return batch;
+  }
+
+  private void takeEligible(List<Submission<?>> batch) {
+    Iterator<Submission<?>> submissions = pending.iterator();
+    while (submissions.hasNext() && batch.size() < maxBatchSize) {
+      Submission<?> submission = submissions.next();
+      if (casesInFlight.add(submission.caseReference)) {
+        submissions.remove();
+        batch.add(submission);
+      }
+    }
+  }
+
+  private void run(List<Submission<?>> batch) {
+    batch.sort(Comparator.comparingLong(Submission::caseReference));
+    try {
+      transactionTemplate.executeWithoutResult(status ->
+          batch.forEach(submission -> submission.runIn(savepointTemplate)));
+    } catch (RuntimeException | Error e) {
+      log.warn("Batch of {} case submissions failed to commit", batch.size(), e);
+      batch.forEach(submission -> submission.result.completeExceptionally(e));
+      return;
+    }
+    batch.forEach(Submission::complete);
+  }
+
+  private void release(List<Submission<?>> batch) {
+    lock.lock();
+    try {
+      batch.forEach(submission -> casesInFlight.remove(submission.caseReference));
+      changed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static final class Submission<T> {
+    private final long caseReference;
+    private final Supplier<T> work;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    // The caller waits for the result, so its request is still live when the submission runs.
+    private final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    private final Map<String, String> mdc = MDC.getCopyOfContextMap();
+    private T value;
+    private Throwable failure;
+
+    private Submission(long caseReference, Supplier<T> work) {
+      this.caseReference = caseReference;
+      this.work = work;
+    }
+
+    private long caseReference() {
+      return caseReference;
+    }
+
+    /**
+     * Runs the submission with its caller's request attributes and MDC, so that callbacks made by its handler carry
+     * the caller's authorisation headers.
+     */
+    private void runIn(TransactionTemplate savepointTemplate) {
+      RequestContextHolder.setRequestAttributes(requestAttributes);
+      if (mdc != null) {
+        MDC.setContextMap(mdc);
+      }
+      try {
+        value = savepointTemplate.execute(status -> work.get());
+      } catch (Exception e) {
+        failure = e;
+      } finally {
+        RequestContextHolder.resetRequestAttributes();
+        MDC.clear();
+      }
+    }
+
+    private void complete() {
+      if (failure != null) {
+        result.completeExceptionally(failure);
+      } else {
+        result.complete(value);
+      }
+    }
+  }
+}
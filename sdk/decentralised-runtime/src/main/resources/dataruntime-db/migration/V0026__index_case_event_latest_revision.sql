@@ -0,0 +1,8 @@
+-- Serve the ES indexer's "latest event at or before a revision" lookup straight from the revision index. Revisions
+-- are unique per case, so a backward scan of (case_data_id, case_revision) already returns events in the order it
+-- asks for, and including id lets the case-data indexing source, which reads only the event id, skip the heap.
+-- This replaces the V0015 unique index rather than adding a second index over the same columns.
+create unique index concurrently idx_case_event_case_data_revision_unique_id
+    on ccd.case_event (case_data_id, case_revision) include (id);
+
+drop index concurrently if exists ccd.idx_case_event_case_data_revision_unique;
@@ -0,0 +1,25 @@
+-- Tell every replica which case changed so it can drop its local copies. Updates announce the case's new
+-- revision, as every update to a case_data row bumps it; deletes announce the reference alone. Notifications
+-- from one transaction are delivered when it commits.
+create or replace function ccd.notify_case_changed()
+returns trigger as $$
+begin
+  if tg_op = 'DELETE' then
+    perform pg_notify('ccd_case_changed', old.reference::text);
+  else
+    perform pg_notify('ccd_case_changed', new.reference || ':' || new.case_revision);
+  end if;
+  return null;
+end;
+$$ language plpgsql;
+
+create trigger trigger_notify_case_changed
+after update on ccd.case_data
+for each row
+when (old.case_revision is distinct from new.case_revision)
+execute function ccd.notify_case_changed();
+
+create trigger trigger_notify_case_deleted
+after delete on ccd.case_data
+for each row
+execute function ccd.notify_case_changed();
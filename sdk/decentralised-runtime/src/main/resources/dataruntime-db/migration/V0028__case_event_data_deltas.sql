@@ -0,0 +1,34 @@
+-- Optionally store an event's case data as the top level fields that differ from an earlier checkpoint event of
+-- the same case, rather than a full copy. Checkpoint rows keep their full data with no data_checkpoint_id; delta
+-- rows have no data, and a data_delta of {"set": {field: value, ...}, "unset": [field, ...]} to apply to the
+-- checkpoint's data.
+alter table ccd.case_event
+    alter column data drop not null,
+    add column data_delta jsonb,
+    add column data_checkpoint_id bigint;
+
+-- Existing rows are all full copies, so skip validating them on what is usually the largest table.
+alter table ccd.case_event
+    add constraint case_event_data_or_delta check (
+        (data_checkpoint_id is null and data is not null)
+        or (data_checkpoint_id is not null and data is null and data_delta is not null)
+    ) not valid;
+
+-- The case data as at an event, whichever way it was stored. Anything reading case_event.data directly must read
+-- ccd.case_event_data(data, data_delta, data_checkpoint_id) instead once deltas are enabled. Arguments are
+-- qualified with the function name as the checkpoint's own columns share their names.
+create function ccd.case_event_data(data jsonb, data_delta jsonb, data_checkpoint_id bigint)
+returns jsonb
+language sql
+stable
+as $$
+  select case
+    when case_event_data.data_checkpoint_id is null then case_event_data.data
+    else (
+      select (cp.data - array(select jsonb_array_elements_text(case_event_data.data_delta -> 'unset')))
+             || (case_event_data.data_delta -> 'set')
+      from ccd.case_event cp
+      where cp.id = case_event_data.data_checkpoint_id
+    )
+  end
+$$;
@@ -0,0 +1,3 @@
+-- The task outbox poller only claims a record once no earlier record of the same case is still to be sent, so it
+-- looks up a case's earlier records on every claim.
+create index concurrently idx_task_outbox_case_id on ccd.task_outbox(case_id, id);
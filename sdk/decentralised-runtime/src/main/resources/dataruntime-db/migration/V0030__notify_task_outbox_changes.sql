@@ -0,0 +1,13 @@
+-- Wake the task outbox listener as soon as new records are committed.
+create or replace function ccd.notify_task_outbox_changed()
+returns trigger as $$
+begin
+  perform pg_notify('ccd_task_outbox_changed', '');
+  return null;
+end;
+$$ language plpgsql;
+
+create trigger trigger_notify_task_outbox_changed
+after insert on ccd.task_outbox
+for each statement
+execute function ccd.notify_task_outbox_changed();
@@ -0,0 +1,4 @@
+-- Records still to be sent are a small, hot part of a table that otherwise grows with every task sent, so index
+-- them alone to keep the poller's claim cost independent of how many processed records are kept.
+create index concurrently idx_task_outbox_pending on ccd.task_outbox(id)
+where status in ('NEW', 'PROCESSING', 'FAILED');
@@ -27,7 +27,9 @@ class AuditEventServiceTest {
       ndb,
       new ObjectMapper(),
       Optional.empty(),
-      mock(ResolvedConfigRegistry.class)
+      mock(ResolvedConfigRegistry.class),
+      false,
+      20
   );
 
   @Test
@@ -44,6 +46,31 @@ class AuditEventServiceTest {
         });
   }
 
+  @Test
+  void rejectsHistoryPageLimitsOutOfRange() {
+    for (int limit : new int[] {0, AuditEventService.MAX_HISTORY_PAGE_SIZE + 1}) {
+      assertThatThrownBy(() -> service.loadHistoryPage(1234567890123456L, Optional.empty(), limit))
+          .isInstanceOf(ResponseStatusException.class)
+          .satisfies(ex -> org.assertj.core.api.Assertions.assertThat(
+              ((ResponseStatusException) ex).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+    verifyNoInteractions(ndb);
+  }
+
+  @Test
+  void rejectsNonPositiveCheckpointInterval() {
+    assertThatThrownBy(() -> new AuditEventService(
+        ndb,
+        new ObjectMapper(),
+        Optional.empty(),
+        mock(ResolvedConfigRegistry.class),
+        true,
+        0
+    ))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("ccd.decentralised-runtime.case-event-deltas.checkpoint-interval must be greater than zero");
+  }
+
   @Test
   void saveAuditRecordRejectsInvalidSignificantItemUrlBeforePersistingEvent() {
     var significantItem = SignificantItem.builder()
@@ -56,6 +83,7 @@ class AuditEventServiceTest {
         null,
         null,
         null,
+        1L,
         UUID.randomUUID(),
         Optional.of(significantItem)
     ))
@@ -0,0 +1,121 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import uk.gov.hmcts.ccd.sdk.config.DecentralisedDataConfiguration;
+
+@SpringBootTest(classes = CaseChangeListenerIntegrationTest.TestConfig.class, properties = {
+    "spring.datasource.url=jdbc:tc:postgresql:15-alpine:///ccd",
+    "spring.datasource.driver-class-name=org.testcontainers.jdbc.ContainerDatabaseDriver"
+})
+class CaseChangeListenerIntegrationTest {
+
+  private static final long CASE_REFERENCE = 8888000000000000L;
+
+  @Autowired
+  private NamedParameterJdbcTemplate jdbc;
+
+  @Autowired
+  private DataSource dataSource;
+
+  private final RecordingSubscriber subscriber = new RecordingSubscriber();
+  private CaseChangeListener listener;
+
+  @AfterEach
+  void stopListener() {
+    if (listener != null) {
+      listener.stop();
+    }
+  }
+
+  @Test
+  void announcesUpdatedAndDeletedCasesAfterFlushingOnConnect() throws Exception {
+    seedCase(CASE_REFERENCE);
+    listener = new CaseChangeListener(dataSource, List.of(subscriber), 200, false);
+    listener.start();
+    assertThat(subscriber.changes.poll(10, TimeUnit.SECONDS)).isEqualTo("flush");
+
+    jdbc.update(
+        "update ccd.case_data set state = 'Updated' where reference = :reference",
+        Map.of("reference", CASE_REFERENCE)
+    );
+    assertThat(subscriber.changes.poll(10, TimeUnit.SECONDS)).isEqualTo(CASE_REFERENCE + ":2");
+
+    jdbc.update("delete from ccd.case_data where reference = :reference", Map.of("reference", CASE_REFERENCE));
+    assertThat(subscriber.changes.poll(10, TimeUnit.SECONDS)).isEqualTo(CASE_REFERENCE + ":" + Long.MAX_VALUE);
+  }
+
+  @Test
+  void doesNotListenWithoutSubscribers() {
+    listener = new CaseChangeListener(dataSource, List.of(new RecordingSubscriber() {
+      @Override
+      public boolean subscribed() {
+        return false;
+      }
+    }), 200, false);
+
+    listener.start();
+
+    assertThat(listener.isRunning()).isFalse();
+  }
+
+  private void seedCase(long reference) {
+    jdbc.update(
+        """
+        insert into ccd.case_data (
+          id, reference, version, jurisdiction, case_type_id, state, data, supplementary_data,
+          security_classification, case_revision
+        ) values (
+          :reference, :reference, 1, 'TEST', 'TestCase', 'Submitted', '{}'::jsonb, '{}'::jsonb, 'PUBLIC', 1
+        )
+        """,
+        Map.of("reference", reference)
+    );
+  }
+
+  private static class RecordingSubscriber implements CaseChangeSubscriber {
+    private final BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+
+    @Override
+    public boolean subscribed() {
+      return true;
+    }
+
+    @Override
+    public void caseChanged(long reference, long currentRevision) {
+      changes.add(reference + ":" + currentRevision);
+    }
+
+    @Override
+    public void changesMayHaveBeenMissed() {
+      changes.add("flush");
+    }
+  }
+
+  @Configuration
+  @Import(DecentralisedDataConfiguration.class)
+  @ImportAutoConfiguration({
+      DataSourceAutoConfiguration.class,
+      JdbcTemplateAutoConfiguration.class,
+      FlywayAutoConfiguration.class
+  })
+  static class TestConfig {
+  }
+}
@@ -0,0 +1,64 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.ccd.sdk.External;
+
+class CaseDataBinderTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  @Test
+  void readsEventDataIntoTheCaseClass() throws Exception {
+    Map<String, JsonNode> data = Map.of(
+        "applicantName", new TextNode("Jo"),
+        "children", MAPPER.readTree("[\"Sam\", \"Alex\"]"),
+        "age", new IntNode(42)
+    );
+
+    var caseData = CaseDataBinder.read(MAPPER, data, TestCaseData.class);
+
+    assertThat(caseData.applicantName).isEqualTo("Jo");
+    assertThat(caseData.children).containsExactly("Sam", "Alex");
+    assertThat(caseData.age).isEqualTo(42);
+  }
+
+  @Test
+  void readsDataHoldingJavaNulls() {
+    Map<String, JsonNode> data = new HashMap<>();
+    data.put("applicantName", null);
+
+    var caseData = CaseDataBinder.read(MAPPER, data, TestCaseData.class);
+
+    assertThat(caseData.applicantName).isNull();
+  }
+
+  @Test
+  void writesCaseAsTheGivenMapperSerialisesIt() {
+    var filteredMapper = MAPPER.copy().setAnnotationIntrospector(new FilterExternalFieldsInspector());
+    var caseData = new TestCaseData();
+    caseData.applicantName = "Jo";
+    caseData.externalNote = "not persisted";
+
+    JsonNode tree = CaseDataBinder.write(filteredMapper, caseData);
+
+    assertThat(tree.get("applicantName").asText()).isEqualTo("Jo");
+    assertThat(tree.has("externalNote")).isFalse();
+  }
+
+  static class TestCaseData {
+    public String applicantName;
+    public List<String> children;
+    public int age;
+    @External
+    public String externalNote;
+  }
+}
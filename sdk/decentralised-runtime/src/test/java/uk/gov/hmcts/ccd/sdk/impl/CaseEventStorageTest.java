@@ -0,0 +1,220 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import uk.gov.hmcts.ccd.data.casedetails.SecurityClassification;
+import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseEvent;
+import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedEventDetails;
+import uk.gov.hmcts.ccd.domain.model.definition.CaseDetails;
+import uk.gov.hmcts.ccd.sdk.ResolvedCCDConfig;
+import uk.gov.hmcts.ccd.sdk.ResolvedConfigRegistry;
+import uk.gov.hmcts.ccd.sdk.api.HasRole;
+import uk.gov.hmcts.ccd.sdk.config.DecentralisedDataConfiguration;
+import uk.gov.hmcts.reform.idam.client.models.UserInfo;
+
+/**
+ * Storage taken by {@code ccd.case_event.data} for long case histories, stored in full and as checkpointed deltas.
+ *
+ * <p>Each case starts at roughly 50 KB and every event changes a couple of top level fields, with one event in five
+ * also adding a correspondence item, much as a case accrues notes and documents over its life. It reports the stored
+ * (compressed) bytes per event and the time to load a full history.
+ *
+ * <p>Opt-in, for example:
+ * {@code ./gradlew :decentralised-runtime:test --tests '*CaseEventStorageTest' -Dccd.case-event-storage.perf.events=200
+ * -Dccd.case-event-storage.perf.cases=10}
+ */
+@SpringBootTest(classes = CaseEventStorageTest.TestConfig.class, properties = {
+    "spring.datasource.url=jdbc:tc:postgresql:15-alpine:///ccd",
+    "spring.datasource.driver-class-name=org.testcontainers.jdbc.ContainerDatabaseDriver"
+})
+@EnabledIfSystemProperty(named = CaseEventStorageTest.EVENTS, matches = "\\d+")
+class CaseEventStorageTest {
+  static final String EVENTS = "ccd.case-event-storage.perf.events";
+  private static final String CASES = "ccd.case-event-storage.perf.cases";
+  private static final String CHECKPOINT_INTERVAL = "ccd.case-event-storage.perf.checkpoint-interval";
+  private static final String CASE_TYPE = "StorageCase";
+  private static final long FIRST_REFERENCE = 1800000000000000L;
+
+  @Autowired
+  private NamedParameterJdbcTemplate jdbc;
+
+  @Autowired
+  private CaseDataRepository repository;
+
+  @Autowired
+  private ResolvedConfigRegistry registry;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final IdamService.User user = new IdamService.User(
+      "Bearer token",
+      new UserInfo("sub", "uid", "name", "given", "family", List.of("caseworker"))
+  );
+
+  @Test
+  void reportsStoredEventDataForFullCopiesAndDeltas() {
+    int events = Integer.getInteger(EVENTS);
+    int cases = Integer.getInteger(CASES, 10);
+    int checkpointInterval = Integer.getInteger(CHECKPOINT_INTERVAL, 20);
+
+    long reference = FIRST_REFERENCE;
+    for (boolean deltas : new boolean[] {false, true}) {
+      var auditEventService = new AuditEventService(jdbc, mapper, Optional.empty(), registry, deltas,
+          checkpointInterval);
+      long firstReference = reference;
+      for (int i = 0; i < cases; i++) {
+        writeHistory(auditEventService, reference++, events);
+      }
+
+      Map<String, Object> stored = jdbc.queryForMap(
+          """
+          select count(*) as events,
+                 sum(coalesce(pg_column_size(data), 0) + coalesce(pg_column_size(data_delta), 0)) as bytes
+          from ccd.case_event
+          where case_data_id >= :first and case_data_id < :last
+          """,
+          Map.of("first", firstReference, "last", reference)
+      );
+      long loadStarted = System.nanoTime();
+      for (long ref = firstReference; ref < reference; ref++) {
+        assertThat(auditEventService.loadHistory(ref)).hasSize(events);
+      }
+      double loadMillis = (System.nanoTime() - loadStarted) / 1_000_000.0 / cases;
+
+      long storedEvents = ((Number) stored.get("events")).longValue();
+      long storedBytes = ((Number) stored.get("bytes")).longValue();
+      System.out.printf("%s: %,d events, %,d bytes stored, %,.0f bytes per event, %.1f ms per history load%n",
+          deltas ? "Deltas every " + checkpointInterval + " revisions" : "Full copies",
+          storedEvents, storedBytes, (double) storedBytes / storedEvents, loadMillis);
+    }
+  }
+
+  private void writeHistory(AuditEventService auditEventService, long reference, int events) {
+    ObjectNode data = initialData();
+    int version = 1;
+    for (int i = 1; i <= events; i++) {
+      data.put("lastEventNumber", i);
+      data.put("status", i % 3 == 0 ? "AwaitingResponse" : "InProgress");
+      if (i % 5 == 0) {
+        ((ArrayNode) data.get("correspondence")).add(correspondence(i));
+      }
+
+      var caseDetails = new CaseDetails();
+      caseDetails.setReference(reference);
+      caseDetails.setJurisdiction("TEST");
+      caseDetails.setCaseTypeId(CASE_TYPE);
+      caseDetails.setState("Submitted");
+      caseDetails.setVersion(version);
+      caseDetails.setSecurityClassification(SecurityClassification.PUBLIC);
+      var event = DecentralisedCaseEvent.builder()
+          .caseDetails(caseDetails)
+          .eventDetails(DecentralisedEventDetails.builder().caseType(CASE_TYPE).eventId("update").build())
+          .internalCaseId(reference)
+          .build();
+
+      var saved = repository.upsertCase(event, Optional.of(data.deepCopy()));
+      version = saved.caseDetails().getCaseDetails().getVersion();
+      auditEventService.saveAuditRecord(event, user, saved.caseDetails().getCaseDetails(), saved.caseEventId(),
+          UUID.randomUUID(), Optional.empty());
+    }
+  }
+
+  private ObjectNode initialData() {
+    ObjectNode data = mapper.createObjectNode();
+    for (int field = 0; field < 40; field++) {
+      data.put("field" + field, "Value of field " + field + " entered when the case was created");
+    }
+    ArrayNode correspondence = data.putArray("correspondence");
+    for (int item = 0; item < 60; item++) {
+      correspondence.add(correspondence(-item));
+    }
+    return data;
+  }
+
+  private ObjectNode correspondence(int index) {
+    ObjectNode item = mapper.createObjectNode().put("id", new UUID(0, index).toString());
+    item.putObject("value")
+        .put("subject", "Correspondence " + index)
+        .put("body", ("Line " + index + " of the correspondence body. ").repeat(16))
+        .putObject("attachment")
+        .put("document_url", "http://dm-store:8080/documents/" + new UUID(1, index))
+        .put("document_filename", "correspondence-" + index + ".pdf");
+    return item;
+  }
+
+  @Configuration
+  @Import({
+      CaseDataRepository.class,
+      DecentralisedDataConfiguration.class
+  })
+  @ImportAutoConfiguration({
+      DataSourceAutoConfiguration.class,
+      JdbcTemplateAutoConfiguration.class,
+      DataSourceTransactionManagerAutoConfiguration.class,
+      TransactionAutoConfiguration.class,
+      FlywayAutoConfiguration.class
+  })
+  static class TestConfig {
+
+    @Bean
+    ObjectMapper objectMapper() {
+      return new ObjectMapper();
+    }
+
+    @Bean
+    ResolvedConfigRegistry resolvedConfigRegistry() {
+      var resolved = new ResolvedCCDConfig<>(
+          Object.class,
+          TestState.class,
+          TestRole.class,
+          Map.of(),
+          ImmutableSet.copyOf(TestState.values())
+      ) {
+        @Override
+        public String getCaseType() {
+          return CASE_TYPE;
+        }
+      };
+      return new ResolvedConfigRegistry(List.of(resolved));
+    }
+  }
+
+  enum TestState {
+    Submitted
+  }
+
+  enum TestRole implements HasRole {
+    CASEWORKER;
+
+    @Override
+    public String getRole() {
+      return "caseworker";
+    }
+
+    @Override
+    public String getCaseTypePermissions() {
+      return "CRUD";
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseDetails;
+import uk.gov.hmcts.ccd.domain.model.definition.CaseDetails;
+
+class CaseSnapshotCacheTest {
+
+  private static final long REFERENCE = 1234567890123456L;
+
+  private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void servesCachedCaseOnlyAtTheRevisionItWasCachedAt() {
+    var cache = cache(true, 1_000_000);
+    cache.put(caseDetails(3));
+
+    assertThat(cache.find(REFERENCE, 3)).isPresent();
+    assertThat(cache.find(REFERENCE, 4)).isEmpty();
+    assertThat(registry.get("cache.gets").tag("cache", CaseSnapshotCache.METRIC_NAME).tag("result", "hit")
+        .functionCounter().count()).isEqualTo(1);
+    assertThat(registry.get("cache.gets").tag("cache", CaseSnapshotCache.METRIC_NAME).tag("result", "miss")
+        .functionCounter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void readReturnsFreshDetailsForEveryHit() {
+    var cache = cache(true, 1_000_000);
+    cache.put(caseDetails(3));
+    byte[] json = cache.find(REFERENCE, 3).orElseThrow();
+
+    var first = cache.read(json);
+    first.getCaseDetails().setData(Map.of());
+    var second = cache.read(json);
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.getRevision()).isEqualTo(3L);
+    assertThat(second.getCaseDetails().getData()).containsEntry("applicantName", new TextNode("Jo"));
+  }
+
+  @Test
+  void keepsOnlyTheLatestRevisionCached() {
+    var cache = cache(true, 1_000_000);
+    cache.put(caseDetails(4));
+    cache.put(caseDetails(3));
+
+    assertThat(cache.find(REFERENCE, 3)).isEmpty();
+    assertThat(cache.find(REFERENCE, 4)).isPresent();
+
+    cache.put(caseDetails(5));
+
+    assertThat(cache.find(REFERENCE, 4)).isEmpty();
+    assertThat(cache.find(REFERENCE, 5)).isPresent();
+  }
+
+  @Test
+  void caseChangedDropsOnlyASupersededRevision() {
+    var cache = cache(true, 1_000_000);
+    cache.put(caseDetails(4));
+
+    cache.caseChanged(REFERENCE, 4);
+    assertThat(cache.find(REFERENCE, 4)).isPresent();
+
+    cache.caseChanged(REFERENCE, 5);
+    assertThat(cache.find(REFERENCE, 4)).isEmpty();
+  }
+
+  @Test
+  void changesMayHaveBeenMissedDropsEverything() {
+    var cache = cache(true, 1_000_000);
+    cache.put(caseDetails(3));
+
+    cache.changesMayHaveBeenMissed();
+
+    assertThat(cache.find(REFERENCE, 3)).isEmpty();
+  }
+
+  @Test
+  void isDisabledByDefault() {
+    assertThat(cache(false, 1_000_000).enabled()).isFalse();
+  }
+
+  @Test
+  void rejectsNonPositiveMaximumSize() {
+    assertThatThrownBy(() -> cache(true, 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("ccd.decentralised-runtime.case-cache.max-size-bytes must be greater than zero");
+  }
+
+  @SuppressWarnings("unchecked")
+  private CaseSnapshotCache cache(boolean enabled, long maxSizeBytes) {
+    ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+    when(provider.getIfAvailable(any())).thenReturn(registry);
+    return new CaseSnapshotCache(mapper, enabled, maxSizeBytes, provider);
+  }
+
+  private DecentralisedCaseDetails caseDetails(long revision) {
+    var caseDetails = new CaseDetails();
+    caseDetails.setReference(REFERENCE);
+    caseDetails.setData(Map.of("applicantName", new TextNode("Jo")));
+    var details = new DecentralisedCaseDetails();
+    details.setCaseDetails(caseDetails);
+    details.setRevision(revision);
+    return details;
+  }
+}
@@ -1,6 +1,8 @@
 package uk.gov.hmcts.ccd.sdk.impl;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
@@ -10,9 +12,8 @@ import static org.mockito.Mockito.when;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.Test;
-import org.springframework.transaction.support.TransactionCallback;
-import org.springframework.transaction.support.TransactionTemplate;
 import uk.gov.hmcts.ccd.data.casedetails.SecurityClassification;
 import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseDetails;
 import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseEvent;
@@ -32,10 +33,11 @@ class CaseSubmissionServiceTest {
   private final LegacyCallbackSubmissionHandler legacyHandler = mock(LegacyCallbackSubmissionHandler.class);
   private final IdamService idam = mock(IdamService.class);
   private final IdempotencyEnforcer idempotencyEnforcer = mock(IdempotencyEnforcer.class);
-  private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+  private final SubmissionBatcher submissionBatcher = mock(SubmissionBatcher.class);
   private final AuditEventService auditEventService = mock(AuditEventService.class);
   private final CaseDataRepository caseDataRepository = mock(CaseDataRepository.class);
   private final CaseProjectionService caseProjectionService = mock(CaseProjectionService.class);
+  private final CaseSnapshotCache snapshotCache = mock(CaseSnapshotCache.class);
 
   private final CaseSubmissionService service = new CaseSubmissionService(
       resolvedConfigRegistry,
@@ -43,10 +45,11 @@ class CaseSubmissionServiceTest {
       legacyHandler,
       idam,
       idempotencyEnforcer,
-      transactionTemplate,
+      submissionBatcher,
       auditEventService,
       caseDataRepository,
-      caseProjectionService
+      caseProjectionService,
+      snapshotCache
   );
 
   @Test
@@ -62,9 +65,11 @@ class CaseSubmissionServiceTest {
     when(idempotencyEnforcer.lockCaseAndGetExistingEvent(IDEMPOTENCY_KEY, 123456789L))
         .thenReturn(Optional.empty());
     when(legacyHandler.apply(eq(event), eq("Bearer raw-token"))).thenReturn(handlerResult());
-    when(caseProjectionService.load(123456789L)).thenReturn(savedCaseDetails());
-    when(transactionTemplate.execute(any())).thenAnswer(invocation ->
-        invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+    when(caseDataRepository.upsertCase(event, Optional.empty()))
+        .thenReturn(new CaseDataRepository.SavedCase(savedCaseDetails(), 42L));
+    when(caseProjectionService.applyProjection(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    when(submissionBatcher.execute(anyLong(), any())).thenAnswer(invocation ->
+        invocation.<Supplier<?>>getArgument(1).get()
     );
 
     service.submit(event, "raw-token", IDEMPOTENCY_KEY);
@@ -72,6 +77,35 @@ class CaseSubmissionServiceTest {
     verify(legacyHandler).apply(event, "Bearer raw-token");
   }
 
+  @Test
+  void projectsTheUpsertedCaseWithoutReloadingIt() {
+    DecentralisedCaseEvent event = event();
+    Event<?, ?, ?> eventConfig = mock(Event.class);
+    doReturn(eventConfig).when(resolvedConfigRegistry).getRequiredEvent("TestCase", "submit");
+    when(eventConfig.getSubmitHandler()).thenReturn(null);
+    when(idam.retrieveUser("raw-token")).thenReturn(new IdamService.User(
+        "Bearer raw-token",
+        new UserInfo("sub", "uid", "name", "given", "family", List.of("caseworker"))
+    ));
+    when(idempotencyEnforcer.lockCaseAndGetExistingEvent(IDEMPOTENCY_KEY, 123456789L))
+        .thenReturn(Optional.empty());
+    when(legacyHandler.apply(eq(event), eq("Bearer raw-token"))).thenReturn(handlerResult());
+    DecentralisedCaseDetails upserted = savedCaseDetails();
+    DecentralisedCaseDetails projected = savedCaseDetails();
+    when(caseDataRepository.upsertCase(event, Optional.empty()))
+        .thenReturn(new CaseDataRepository.SavedCase(upserted, 42L));
+    when(caseProjectionService.applyProjection(upserted)).thenReturn(projected);
+    when(submissionBatcher.execute(anyLong(), any())).thenAnswer(invocation ->
+        invocation.<Supplier<?>>getArgument(1).get()
+    );
+
+    var response = service.submit(event, "raw-token", IDEMPOTENCY_KEY);
+
+    assertThat(response.getCaseDetails()).isSameAs(projected);
+    verify(auditEventService).saveAuditRecord(any(), any(), eq(projected.getCaseDetails()), eq(42L),
+        eq(IDEMPOTENCY_KEY), any());
+  }
+
   private DecentralisedCaseEvent event() {
     var caseDetails = new CaseDetails();
     caseDetails.setReference(123456789L);
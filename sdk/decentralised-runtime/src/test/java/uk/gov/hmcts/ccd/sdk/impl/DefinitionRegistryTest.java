@@ -0,0 +1,91 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DefinitionRegistryTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private DefinitionRegistry registry;
+
+  @TempDir
+  Path snapshots;
+
+  @AfterEach
+  void tearDown() {
+    if (registry != null) {
+      registry.stop();
+    }
+  }
+
+  @Test
+  void loadsSnapshotsAtStartupWithEventsIndexedById() throws Exception {
+    writeSnapshot("TestCase", "create", "update");
+
+    registry = new DefinitionRegistry(mapper, snapshots.toString(), false, false);
+
+    assertThat(registry.find("TestCase")).hasValueSatisfying(caseType ->
+        assertThat(caseType.getId()).isEqualTo("TestCase"));
+    assertThat(registry.findEvent("TestCase", "update")).hasValueSatisfying(event ->
+        assertThat(event.getId()).isEqualTo("update"));
+    assertThat(registry.findEvent("TestCase", "missing")).isEmpty();
+    assertThat(registry.findEvent("OtherCase", "update")).isEmpty();
+  }
+
+  @Test
+  void loadsSnapshotsWrittenAfterAnEmptyStartupWithoutHotReload() throws Exception {
+    registry = new DefinitionRegistry(mapper, snapshots.toString(), false, false);
+    registry.start();
+    assertThat(registry.find("TestCase")).isEmpty();
+
+    writeSnapshot("TestCase", "create");
+
+    assertThat(registry.findEvent("TestCase", "create")).isPresent();
+  }
+
+  @Test
+  void keepsTheLoadedSnapshotWithoutHotReload() throws Exception {
+    writeSnapshot("TestCase", "create");
+    registry = new DefinitionRegistry(mapper, snapshots.toString(), false, false);
+    registry.start();
+
+    writeSnapshot("OtherCase", "create");
+
+    assertThat(registry.find("TestCase")).isPresent();
+    assertThat(registry.find("OtherCase")).isEmpty();
+  }
+
+  @Test
+  void reloadsChangedSnapshotsWithHotReload() throws Exception {
+    writeSnapshot("TestCase", "create");
+    registry = new DefinitionRegistry(mapper, snapshots.toString(), true, false);
+    registry.start();
+
+    writeSnapshot("TestCase", "create", "update");
+    writeSnapshot("OtherCase", "create");
+
+    long deadline = System.nanoTime() + 30_000_000_000L;
+    while (registry.find("OtherCase").isEmpty() && System.nanoTime() < deadline) {
+      Thread.sleep(50);
+    }
+    assertThat(registry.find("OtherCase")).isPresent();
+    assertThat(registry.findEvent("TestCase", "update")).isPresent();
+  }
+
+  private void writeSnapshot(String caseTypeId, String... eventIds) throws Exception {
+    var caseType = mapper.createObjectNode().put("id", caseTypeId);
+    var events = caseType.putArray("events");
+    for (String eventId : eventIds) {
+      events.addObject().put("id", eventId);
+    }
+    Path written = Files.writeString(snapshots.resolve(caseTypeId + ".json.tmp"), caseType.toString());
+    Files.move(written, snapshots.resolve(caseTypeId + ".json"), StandardCopyOption.REPLACE_EXISTING);
+  }
+}
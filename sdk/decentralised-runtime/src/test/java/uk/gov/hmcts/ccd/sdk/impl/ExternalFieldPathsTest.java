@@ -0,0 +1,114 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.ccd.sdk.External;
+import uk.gov.hmcts.ccd.sdk.type.Document;
+import uk.gov.hmcts.ccd.sdk.type.ListValue;
+
+class ExternalFieldPathsTest {
+
+  private static final TypeReference<Map<String, JsonNode>> JSON_NODE_MAP = new TypeReference<>() {};
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  @Test
+  void dropsExternalPropertiesAsTheFilteringMapperWould() {
+    var caseData = new TestCaseData();
+    caseData.applicantName = "Jo";
+    caseData.generatedDocument = document("hash-1");
+    caseData.correspondence = List.of(new ListValue<>("1", document("hash-2")));
+    caseData.documentsByParty = Map.of("applicant", document("hash-3"));
+    Map<String, JsonNode> data = MAPPER.convertValue(caseData, JSON_NODE_MAP);
+
+    var paths = ExternalFieldPaths.of(MAPPER, TestCaseData.class).orElseThrow();
+    JsonNode filtered = paths.filter(data, MAPPER.getNodeFactory());
+
+    var filteredMapper = MAPPER.copy().setAnnotationIntrospector(new FilterExternalFieldsInspector());
+    assertThat(filtered).isEqualTo(filteredMapper.valueToTree(caseData));
+    assertThat(filtered.findValues("document_hash")).isEmpty();
+    assertThat(data.get("generatedDocument").get("document_hash").asText()).isEqualTo("hash-1");
+  }
+
+  @Test
+  void sharesSubtreesWithoutExternalProperties() {
+    var caseData = new TestCaseData();
+    caseData.names = List.of("Jo", "Sam");
+    caseData.generatedDocument = document("hash-1");
+    Map<String, JsonNode> data = MAPPER.convertValue(caseData, JSON_NODE_MAP);
+
+    JsonNode filtered = ExternalFieldPaths.of(MAPPER, TestCaseData.class).orElseThrow()
+        .filter(data, MAPPER.getNodeFactory());
+
+    assertThat(filtered.get("names")).isSameAs(data.get("names"));
+    assertThat(filtered.get("generatedDocument")).isNotSameAs(data.get("generatedDocument"));
+  }
+
+  @Test
+  void hasNoPathsForLooselyTypedCaseClasses() {
+    assertThat(ExternalFieldPaths.of(MAPPER, Map.class)).isEmpty();
+    assertThat(ExternalFieldPaths.of(MAPPER, LooseCaseData.class)).isEmpty();
+  }
+
+  @Test
+  void hasNoPathsForPolymorphicTypes() {
+    assertThat(ExternalFieldPaths.of(MAPPER, RespondentCaseData.class)).isEmpty();
+    assertThat(ExternalFieldPaths.of(MAPPER, PartyCaseData.class)).isPresent();
+    assertThat(ExternalFieldPaths.of(new ObjectMapper().registerSubtypes(Solicitor.class), PartyCaseData.class))
+        .isEmpty();
+  }
+
+  private static Document document(String hashToken) {
+    return Document.builder()
+        .url("http://dm-store/documents/" + hashToken)
+        .hashToken(hashToken)
+        .build();
+  }
+
+  static class TestCaseData {
+    public String applicantName;
+    public List<String> names;
+    public Document generatedDocument;
+    public List<ListValue<Document>> correspondence;
+    public Map<String, Document> documentsByParty;
+  }
+
+  static class LooseCaseData {
+    public Object anything;
+  }
+
+  static class PartyCaseData {
+    public Party applicant;
+  }
+
+  static class Party {
+    public String name;
+  }
+
+  static class Solicitor extends Party {
+    @External
+    public String firmReference;
+  }
+
+  static class RespondentCaseData {
+    public Respondent respondent;
+  }
+
+  @JsonTypeInfo(use = JsonTypeInfo.Id.NAME)
+  @JsonSubTypes(@JsonSubTypes.Type(value = Organisation.class, name = "organisation"))
+  static class Respondent {
+    public String name;
+  }
+
+  static class Organisation extends Respondent {
+    @External
+    public String registrationNumber;
+  }
+}
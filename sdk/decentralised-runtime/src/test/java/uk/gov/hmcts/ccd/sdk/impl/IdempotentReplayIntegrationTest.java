@@ -2,9 +2,11 @@ package uk.gov.hmcts.ccd.sdk.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableSet;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -23,15 +25,19 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import uk.gov.hmcts.ccd.data.casedetails.SecurityClassification;
 import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseDetails;
 import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseEvent;
+import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedEventDetails;
 import uk.gov.hmcts.ccd.domain.model.definition.CaseDetails;
 import uk.gov.hmcts.ccd.sdk.CaseReindexingService;
 import uk.gov.hmcts.ccd.sdk.ResolvedCCDConfig;
 import uk.gov.hmcts.ccd.sdk.ResolvedConfigRegistry;
 import uk.gov.hmcts.ccd.sdk.api.HasRole;
 import uk.gov.hmcts.ccd.sdk.config.DecentralisedDataConfiguration;
+import uk.gov.hmcts.reform.ccd.client.model.SignificantItem;
+import uk.gov.hmcts.reform.idam.client.models.UserInfo;
 
 @SpringBootTest(classes = IdempotentReplayIntegrationTest.TestConfig.class, properties = {
     "spring.datasource.url=jdbc:tc:postgresql:15-alpine:///ccd",
@@ -41,14 +47,13 @@ class IdempotentReplayIntegrationTest {
 
   private static final long CASE_REFERENCE = 9999000000000000L;
   private static final long CASE_ID = 123L;
-  private static final long CASE_ID_A = 456L;
-  private static final long CASE_ID_B = 789L;
-  private static final long CASE_REFERENCE_A = 1111000000000000L;
-  private static final long CASE_REFERENCE_B = 2222000000000000L;
   private static final long UPSERT_CASE_REFERENCE = 3333000000000000L;
   private static final long REINDEX_CASE_REFERENCE = 4444000000000000L;
   private static final long LOWER_PRIORITY_REINDEX_CASE_REFERENCE = 5555000000000000L;
   private static final long LIVE_UPDATE_AFTER_REINDEX_CASE_REFERENCE = 6666000000000000L;
+  private static final long STREAM_CASE_REFERENCE = 7777000000000000L;
+  private static final long DELTA_CASE_REFERENCE = 1212000000000000L;
+  private static final long HISTORY_PAGE_CASE_REFERENCE = 1313000000000000L;
 
   @Autowired
   private NamedParameterJdbcTemplate jdbc;
@@ -59,6 +64,12 @@ class IdempotentReplayIntegrationTest {
   @Autowired
   private CaseReindexingService reindexingService;
 
+  @Autowired
+  private AuditEventService auditEventService;
+
+  @Autowired
+  private ResolvedConfigRegistry configRegistry;
+
   @Test
   void idempotentReplayReturnsEventVersionAndRevision() {
     seedCaseData(3, 5);
@@ -69,26 +80,54 @@ class IdempotentReplayIntegrationTest {
     assertThat(replayed.getCaseDetails().getVersion()).isEqualTo(1);
     assertThat(replayed.getCaseDetails().getRevision()).isEqualTo(1L);
 
-    DecentralisedCaseDetails latest = repository.getCase(CASE_REFERENCE);
-    assertThat(latest.getCaseDetails().getVersion()).isEqualTo(3);
-    assertThat(latest.getCaseDetails().getRevision()).isEqualTo(5L);
+    List<DecentralisedCaseDetails> latest = new ArrayList<>();
+    repository.streamCases(List.of(CASE_REFERENCE), latest::add);
+    assertThat(latest).singleElement().satisfies(details -> {
+      assertThat(details.getCaseDetails().getVersion()).isEqualTo(3);
+      assertThat(details.getCaseDetails().getRevision()).isEqualTo(5L);
+    });
+  }
+
+  @Test
+  void streamCasesPassesNothingWhenNoReferencesProvided() {
+    List<DecentralisedCaseDetails> streamed = new ArrayList<>();
+
+    repository.streamCases(List.of(), streamed::add);
+
+    assertThat(streamed).isEmpty();
   }
 
   @Test
-  void getCasesReturnsEmptyListWhenNoReferencesProvided() {
-    assertThat(repository.getCases(List.of())).isEmpty();
+  void streamCasesPassesEachCaseInReferenceOrder() {
+    long firstRef = STREAM_CASE_REFERENCE;
+    long secondRef = STREAM_CASE_REFERENCE + 1;
+    seedCaseData(secondRef, secondRef, 1, 1);
+    seedCaseData(firstRef, firstRef, 1, 1);
+    List<Long> streamed = new ArrayList<>();
+
+    repository.streamCases(
+        List.of(secondRef, firstRef),
+        details -> streamed.add(details.getCaseDetails().getReference())
+    );
+
+    assertThat(streamed).containsExactly(firstRef, secondRef);
   }
 
   @Test
-  void getCasesReturnsStableOrderByReferenceAscending() {
-    seedCaseData(CASE_ID_A, CASE_REFERENCE_A, 1, 1);
-    seedCaseData(CASE_ID_B, CASE_REFERENCE_B, 1, 1);
+  void streamCasesReadsPagesOutsideATransactionBeforePassingThemOn() {
+    List<Long> references = new ArrayList<>();
+    for (long i = 10; i < 55; i++) {
+      seedCaseData(STREAM_CASE_REFERENCE + i, STREAM_CASE_REFERENCE + i, 1, 1);
+      references.add(0, STREAM_CASE_REFERENCE + i);
+    }
+    List<Long> streamed = new ArrayList<>();
 
-    var cases = repository.getCases(java.util.List.of(CASE_REFERENCE_B, CASE_REFERENCE_A));
+    repository.streamCases(references, details -> {
+      assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+      streamed.add(details.getCaseDetails().getReference());
+    });
 
-    assertThat(cases)
-        .extracting(details -> details.getCaseDetails().getReference())
-        .containsExactly(CASE_REFERENCE_A, CASE_REFERENCE_B);
+    assertThat(streamed).containsExactlyElementsOf(references.reversed());
   }
 
   @Test
@@ -149,6 +188,185 @@ class IdempotentReplayIntegrationTest {
     assertThat(result.get("hmcts_service_id")).isEqualTo("ABA1");
   }
 
+  @Test
+  void upsertCaseReturnsSavedRowWithWrittenData() throws Exception {
+    long caseRef = UPSERT_CASE_REFERENCE + 3;
+    seedCaseData(caseRef, caseRef, 1, 4);
+    JsonNode data = new ObjectMapper().readTree("{\"field\":\"updated\"}");
+
+    DecentralisedCaseDetails saved = repository.upsertCase(buildEvent(caseRef, "TestCase"), Optional.of(data))
+        .caseDetails();
+
+    Map<String, Object> row = jdbc.queryForMap(
+        "select version, case_revision from ccd.case_data where reference = :ref",
+        Map.of("ref", caseRef)
+    );
+    assertThat(saved.getCaseDetails().getReference()).isEqualTo(caseRef);
+    assertThat(saved.getCaseDetails().getVersion()).isEqualTo(row.get("version")).isEqualTo(2);
+    assertThat(saved.getRevision()).isEqualTo(row.get("case_revision")).isEqualTo(5L);
+    assertThat(saved.getCaseDetails().getData()).containsExactlyEntriesOf(Map.of("field", data.get("field")));
+    assertThat(saved.getCaseDetails().getSupplementaryData()).containsKey("HMCTSServiceId");
+  }
+
+  @Test
+  void upsertCaseReturnsStoredDataWhenNoDataWasWritten() {
+    long caseRef = UPSERT_CASE_REFERENCE + 4;
+    seedCaseData(caseRef, caseRef, 1, 1);
+    jdbc.update(
+        "update ccd.case_data set data = '{\"stored\":true}'::jsonb where reference = :ref",
+        Map.of("ref", caseRef)
+    );
+
+    DecentralisedCaseDetails saved = repository.upsertCase(buildEvent(caseRef, "TestCase"), Optional.empty())
+        .caseDetails();
+
+    assertThat(saved.getCaseDetails().getData().get("stored").asBoolean()).isTrue();
+    assertThat(saved.getRevision()).isEqualTo(3L);
+  }
+
+  @Test
+  void saveAuditRecordWritesEventWithReservedIdAndSignificantItem() {
+    long caseRef = UPSERT_CASE_REFERENCE + 5;
+    seedCaseData(caseRef, caseRef, 1, 1);
+    var event = DecentralisedCaseEvent.builder()
+        .caseDetails(buildEvent(caseRef, "TestCase").getCaseDetails())
+        .eventDetails(DecentralisedEventDetails.builder()
+            .caseType("TestCase")
+            .eventId("ev1")
+            .eventName("Event one")
+            .build())
+        .internalCaseId(caseRef)
+        .build();
+    var user = new IdamService.User(
+        "Bearer token",
+        new UserInfo("sub", "uid", "name", "given", "family", List.of("caseworker"))
+    );
+    var significantItem = SignificantItem.builder()
+        .type("DOCUMENT")
+        .description("Generated document")
+        .url("https://example.com/documents/1")
+        .build();
+
+    var saved = repository.upsertCase(event, Optional.empty());
+    long eventId = auditEventService.saveAuditRecord(
+        event,
+        user,
+        saved.caseDetails().getCaseDetails(),
+        saved.caseEventId(),
+        UUID.randomUUID(),
+        Optional.of(significantItem)
+    );
+
+    assertThat(eventId).isEqualTo(saved.caseEventId());
+    Map<String, Object> written = jdbc.queryForMap(
+        """
+        select ce.case_revision,
+               ce.created_date = cd.last_modified as stamped_with_case,
+               item.description
+        from ccd.case_event ce
+             join ccd.case_data cd on cd.id = ce.case_data_id
+             join ccd.case_event_significant_items item on item.case_event_id = ce.id
+        where ce.id = :id
+        """,
+        Map.of("id", eventId)
+    );
+    assertThat(written.get("case_revision")).isEqualTo(2L);
+    assertThat(written.get("stamped_with_case")).isEqualTo(true);
+    assertThat(written.get("description")).isEqualTo("Generated document");
+  }
+
+  @Test
+  void storesEventDataAsDeltasAgainstPeriodicCheckpoints() throws Exception {
+    long caseRef = DELTA_CASE_REFERENCE;
+    seedCaseData(caseRef, caseRef, 1, 1);
+    var deltaService = new AuditEventService(jdbc, new ObjectMapper(), Optional.empty(), configRegistry, true, 3);
+    var mapper = new ObjectMapper();
+    List<JsonNode> written = List.of(
+        mapper.readTree("{\"applicant\":\"Jo\",\"notes\":\"a\",\"step\":2}"),
+        mapper.readTree("{\"applicant\":\"Jo\",\"step\":3}"),
+        mapper.readTree("{\"applicant\":\"Jo\",\"step\":4}"),
+        mapper.readTree("{\"applicant\":\"Jo\",\"step\":5}"),
+        mapper.readTree("{\"applicant\":\"Jo\",\"notes\":\"b\",\"step\":6}")
+    );
+    var user = new IdamService.User(
+        "Bearer token",
+        new UserInfo("sub", "uid", "name", "given", "family", List.of("caseworker"))
+    );
+    List<Long> eventIds = new ArrayList<>();
+    int version = 1;
+    for (JsonNode data : written) {
+      var caseDetails = buildEvent(caseRef, "TestCase").getCaseDetails();
+      caseDetails.setVersion(version);
+      var event = DecentralisedCaseEvent.builder()
+          .caseDetails(caseDetails)
+          .eventDetails(DecentralisedEventDetails.builder().caseType("TestCase").eventId("ev1").build())
+          .internalCaseId(caseRef)
+          .build();
+      var saved = repository.upsertCase(event, Optional.of(data));
+      version = saved.caseDetails().getCaseDetails().getVersion();
+      eventIds.add(deltaService.saveAuditRecord(event, user, saved.caseDetails().getCaseDetails(),
+          saved.caseEventId(), UUID.randomUUID(), Optional.empty()));
+    }
+
+    List<Boolean> storedInFull = jdbc.queryForList(
+        "select data is not null from ccd.case_event where case_data_id = :id order by case_revision",
+        Map.of("id", caseRef),
+        Boolean.class
+    );
+    assertThat(storedInFull).containsExactly(true, false, false, true, false);
+    var history = deltaService.loadHistory(caseRef);
+    for (int i = 0; i < written.size(); i++) {
+      long eventId = eventIds.get(i);
+      var expected = mapper.convertValue(written.get(i), Map.class);
+      assertThat(mapper.convertValue(repository.caseDetailsAtEvent(caseRef, eventId).getCaseDetails().getData(),
+          Map.class)).isEqualTo(expected);
+      assertThat(history).filteredOn(event -> event.getId() == eventId).singleElement()
+          .satisfies(event -> assertThat(mapper.convertValue(event.getEvent().getData(), Map.class))
+              .isEqualTo(expected));
+    }
+  }
+
+  @Test
+  void loadsHistoryPagesNewestFirstWithoutEventData() {
+    long caseRef = HISTORY_PAGE_CASE_REFERENCE;
+    seedCaseData(caseRef, caseRef, 1, 1);
+    var user = new IdamService.User(
+        "Bearer token",
+        new UserInfo("sub", "uid", "name", "given", "family", List.of("caseworker"))
+    );
+    List<Long> eventIds = new ArrayList<>();
+    int version = 1;
+    for (int i = 0; i < 5; i++) {
+      var caseDetails = buildEvent(caseRef, "TestCase").getCaseDetails();
+      caseDetails.setVersion(version);
+      var event = DecentralisedCaseEvent.builder()
+          .caseDetails(caseDetails)
+          .eventDetails(DecentralisedEventDetails.builder().caseType("TestCase").eventId("ev" + i).build())
+          .internalCaseId(caseRef)
+          .build();
+      var saved = repository.upsertCase(event, Optional.of(new ObjectMapper().createObjectNode().put("step", i)));
+      version = saved.caseDetails().getCaseDetails().getVersion();
+      eventIds.add(auditEventService.saveAuditRecord(event, user, saved.caseDetails().getCaseDetails(),
+          saved.caseEventId(), UUID.randomUUID(), Optional.empty()));
+    }
+
+    var first = auditEventService.loadHistoryPage(caseRef, Optional.empty(), 2);
+    var second = auditEventService.loadHistoryPage(caseRef, Optional.of(first.nextCursor()), 2);
+    var last = auditEventService.loadHistoryPage(caseRef, Optional.of(second.nextCursor()), 2);
+
+    List<Long> paged = new ArrayList<>();
+    for (var page : List.of(first, second, last)) {
+      page.events().forEach(event -> paged.add(event.getId()));
+      assertThat(page.events()).allSatisfy(event -> assertThat(event.getEvent().getData()).isNull());
+    }
+    assertThat(paged).containsExactlyElementsOf(eventIds.reversed());
+    assertThat(first.events().get(0).getEvent().getEventId()).isEqualTo("ev4");
+    assertThat(last.events()).hasSize(1);
+    assertThat(last.nextCursor()).isNull();
+    assertThat(auditEventService.loadHistoryEvent(caseRef, eventIds.get(4)).getEvent().getData().get("step").asInt())
+        .isEqualTo(4);
+  }
+
   @Test
   void reindexingAdvancesExistingQueueRowToLatestRevision() {
     seedCaseData(REINDEX_CASE_REFERENCE, REINDEX_CASE_REFERENCE, 1, 5);
@@ -384,7 +602,12 @@ class IdempotentReplayIntegrationTest {
   }
 
   @Configuration
-  @Import({CaseDataRepository.class, CaseReindexingService.class, DecentralisedDataConfiguration.class})
+  @Import({
+      CaseDataRepository.class,
+      AuditEventService.class,
+      CaseReindexingService.class,
+      DecentralisedDataConfiguration.class
+  })
   @ImportAutoConfiguration({
       DataSourceAutoConfiguration.class,
       JdbcTemplateAutoConfiguration.class,
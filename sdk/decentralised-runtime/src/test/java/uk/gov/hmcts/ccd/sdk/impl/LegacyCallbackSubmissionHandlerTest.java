@@ -88,6 +88,29 @@ class LegacyCallbackSubmissionHandlerTest {
     verify(cdamAttachService, never()).attachNewDocumentsAndStripHashes(any(), any(), any(), any());
   }
 
+  @Test
+  void stripsExternalDocumentHashFromCallbackCaseDataWithoutRebindingIt() {
+    setupEventConfig(DocumentCaseData.class);
+    DecentralisedCaseEvent event = event();
+    var caseData = new DocumentCaseData();
+    caseData.generatedDocument = Document.builder()
+        .url("http://dm-store/documents/22222222-2222-2222-2222-222222222222")
+        .hashToken("hash-token")
+        .build();
+    when(executor.aboutToSubmit(any())).thenReturn(AboutToStartOrSubmitResponse.builder()
+        .data(caseData)
+        .build());
+
+    var result = handler.apply(event, AUTHORISATION);
+
+    assertThat(event.getCaseDetails().getData().get("generatedDocument").get("document_hash").asText())
+        .isEqualTo("hash-token");
+    JsonNode snapshot = result.dataUpdate().orElseThrow();
+    assertThat(snapshot.findValues("document_hash")).isEmpty();
+    assertThat(snapshot.get("generatedDocument").get("document_url").asText())
+        .isEqualTo("http://dm-store/documents/22222222-2222-2222-2222-222222222222");
+  }
+
   @Test
   void attachesCdamDocumentsAndStripsHashesBeforeSnapshot() throws Exception {
     setupEventConfig();
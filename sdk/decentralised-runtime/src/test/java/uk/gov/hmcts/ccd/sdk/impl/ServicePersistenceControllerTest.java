@@ -1,17 +1,31 @@
 package uk.gov.hmcts.ccd.sdk.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
+import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseDetails;
 import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseEvent;
 import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedSubmitEventResponse;
+import uk.gov.hmcts.ccd.domain.model.definition.CaseDetails;
 
 public class ServicePersistenceControllerTest {
 
@@ -19,12 +33,14 @@ public class ServicePersistenceControllerTest {
   private final AuditEventService auditEventService = mock(AuditEventService.class);
   private final SupplementaryDataService supplementaryDataService = mock(SupplementaryDataService.class);
   private final CaseProjectionService caseProjectionService = mock(CaseProjectionService.class);
+  private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
 
   private final ServicePersistenceController controller = new ServicePersistenceController(
       submissionService,
       auditEventService,
       supplementaryDataService,
-      caseProjectionService
+      caseProjectionService,
+      mapper
   );
 
   @Test
@@ -82,4 +98,71 @@ public class ServicePersistenceControllerTest {
     verify(submissionService).submit(event, "Bearer token", idempotencyKey);
     verifyNoMoreInteractions(submissionService);
   }
+
+  @Test
+  void getCasesStreamsEachProjectedCaseIntoAJsonArray() throws Exception {
+    var first = caseDetails(1111000000000000L);
+    var second = caseDetails(2222000000000000L);
+    doAnswer(invocation -> {
+      Consumer<DecentralisedCaseDetails> consumer = invocation.getArgument(1);
+      consumer.accept(first);
+      consumer.accept(second);
+      return null;
+    }).when(caseProjectionService).stream(eq(List.of(1111000000000000L, 2222000000000000L)), any());
+
+    var response = controller.getCases(List.of(1111000000000000L, 2222000000000000L));
+    var out = new ByteArrayOutputStream();
+    response.getBody().writeTo(out);
+
+    // The same JSON that serialising the whole list used to produce.
+    JsonNode written = mapper.readTree(out.toByteArray());
+    assertThat(written).isEqualTo(mapper.valueToTree(List.of(first, second)));
+  }
+
+  @Test
+  void getCasesLeavesTheArrayUnclosedWhenACaseFailsPartWay() throws Exception {
+    var first = caseDetails(1111000000000000L);
+    doAnswer(invocation -> {
+      Consumer<DecentralisedCaseDetails> consumer = invocation.getArgument(1);
+      consumer.accept(first);
+      throw new IllegalStateException("projection failed");
+    }).when(caseProjectionService).stream(eq(List.of(1111000000000000L, 2222000000000000L)), any());
+
+    var response = controller.getCases(List.of(1111000000000000L, 2222000000000000L));
+    var out = new ByteArrayOutputStream();
+
+    assertThatThrownBy(() -> response.getBody().writeTo(out))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("projection failed");
+    assertThatThrownBy(() -> mapper.readTree(out.toByteArray()))
+        .isInstanceOf(JsonProcessingException.class);
+  }
+
+  @Test
+  void getCasesWritesAnEmptyArrayWhenNoCasesMatch() throws Exception {
+    var response = controller.getCases(List.of(1111000000000000L));
+    var out = new ByteArrayOutputStream();
+    response.getBody().writeTo(out);
+
+    assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("[]");
+  }
+
+  @Test
+  void loadHistoryPageStartsFromTheNewestEventWithoutACursor() {
+    var page = new CaseHistoryPage(List.of(), null);
+    when(auditEventService.loadHistoryPage(1L, Optional.empty(), 50)).thenReturn(page);
+
+    ResponseEntity<CaseHistoryPage> response = controller.loadHistoryPage(1L, null, 50);
+
+    assertThat(response.getBody()).isSameAs(page);
+  }
+
+  private DecentralisedCaseDetails caseDetails(long reference) {
+    var caseDetails = new CaseDetails();
+    caseDetails.setReference(reference);
+    var details = new DecentralisedCaseDetails();
+    details.setCaseDetails(caseDetails);
+    return details;
+  }
+
 }
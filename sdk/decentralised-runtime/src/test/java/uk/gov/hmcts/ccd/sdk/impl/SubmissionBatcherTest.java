@@ -0,0 +1,185 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class SubmissionBatcherTest {
+
+  private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+  private final List<TransactionStatus> batches = new CopyOnWriteArrayList<>();
+  private final List<TransactionStatus> savepoints = new CopyOnWriteArrayList<>();
+  private final ExecutorService callers = Executors.newFixedThreadPool(4);
+  private SubmissionBatcher batcher;
+
+  SubmissionBatcherTest() {
+    when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+      TransactionDefinition definition = invocation.getArgument(0);
+      var status = new SimpleTransactionStatus();
+      if (definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_NESTED) {
+        savepoints.add(status);
+      } else {
+        batches.add(status);
+      }
+      return status;
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (batcher != null) {
+      batcher.stop();
+    }
+    callers.shutdownNow();
+  }
+
+  @Test
+  void runsEachSubmissionInItsOwnTransactionWhenDisabled() {
+    batcher = batcher(false, 10, 1_000);
+    batcher.start();
+
+    assertThat(batcher.execute(1L, () -> "saved")).isEqualTo("saved");
+
+    assertThat(batches).hasSize(1);
+    assertThat(savepoints).isEmpty();
+  }
+
+  @Test
+  void commitsSubmissionsOnDistinctCasesTogether() throws Exception {
+    batcher = batcher(true, 3, 10_000);
+    batcher.start();
+
+    var first = submit(1L, "one");
+    var second = submit(2L, "two");
+    var third = submit(3L, "three");
+
+    assertThat(List.of(result(first), result(second), result(third))).containsExactly("one", "two", "three");
+    assertThat(batches).hasSize(1);
+    assertThat(savepoints).hasSize(3);
+    verify(transactionManager).commit(batches.get(0));
+  }
+
+  @Test
+  void neverBatchesTwoSubmissionsForTheSameCase() throws Exception {
+    batcher = batcher(true, 2, 200);
+    batcher.start();
+
+    var first = submit(1L, "first");
+    var second = submit(1L, "second");
+
+    assertThat(List.of(result(first), result(second))).containsExactlyInAnyOrder("first", "second");
+    assertThat(batches).hasSize(2);
+  }
+
+  @Test
+  void rollsBackOnlyTheSubmissionThatFailed() throws Exception {
+    batcher = batcher(true, 2, 10_000);
+    batcher.start();
+
+    Future<String> failed = callers.submit(() -> batcher.execute(1L, () -> {
+      throw new IllegalStateException("Handler failed");
+    }));
+    var saved = submit(2L, "saved");
+
+    assertThat(result(saved)).isEqualTo("saved");
+    assertThatThrownBy(() -> result(failed))
+        .isInstanceOf(ExecutionException.class)
+        .cause()
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Handler failed");
+    assertThat(batches).hasSize(1);
+    verify(transactionManager).rollback(savepoints.get(0));
+    verify(transactionManager).commit(savepoints.get(1));
+    verify(transactionManager).commit(batches.get(0));
+    verify(transactionManager, never()).rollback(batches.get(0));
+  }
+
+  @Test
+  void runsBatchedSubmissionsWithTheCallersRequestHeadersAndMdc() throws Exception {
+    batcher = batcher(true, 2, 10_000);
+    batcher.start();
+
+    Future<String> first = submitWithCallerContext(1L, "Bearer first", "s2s-first", "request-1");
+    Future<String> second = submitWithCallerContext(2L, "Bearer second", "s2s-second", "request-2");
+
+    // Read the way JsonCallbackBridge builds the headers it forwards on callbacks.
+    assertThat(result(first)).isEqualTo("Bearer first|s2s-first|request-1");
+    assertThat(result(second)).isEqualTo("Bearer second|s2s-second|request-2");
+    assertThat(batches).hasSize(1);
+  }
+
+  @Test
+  void runsBatchesOnVirtualThreadsWhenSpringDoes() {
+    batcher = new SubmissionBatcher(new TransactionTemplate(transactionManager), true, 1, 0, 1, true);
+    batcher.start();
+
+    assertThat(batcher.execute(1L, () -> Thread.currentThread().isVirtual())).isTrue();
+  }
+
+  @Test
+  void rejectsNonPositiveBatchSize() {
+    assertThatThrownBy(() -> batcher(true, 0, 5))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("ccd.decentralised-runtime.submission-batching.max-batch-size must be greater than zero");
+  }
+
+  private SubmissionBatcher batcher(boolean enabled, int maxBatchSize, int maxWaitMs) {
+    return new SubmissionBatcher(new TransactionTemplate(transactionManager), enabled, maxBatchSize, maxWaitMs, 1,
+        false);
+  }
+
+  private Future<String> submit(long caseReference, String value) {
+    return callers.submit(() -> batcher.execute(caseReference, () -> value));
+  }
+
+  private Future<String> submitWithCallerContext(long caseReference, String authorization,
+                                                 String serviceAuthorization, String requestId) {
+    return callers.submit(() -> {
+      MockHttpServletRequest request = new MockHttpServletRequest();
+      request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+      request.addHeader("ServiceAuthorization", serviceAuthorization);
+      RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+      MDC.put("requestId", requestId);
+      try {
+        return batcher.execute(caseReference, () -> {
+          HttpServletRequest current =
+              ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
+          return current.getHeader(HttpHeaders.AUTHORIZATION) + "|" + current.getHeader("ServiceAuthorization")
+              + "|" + MDC.get("requestId");
+        });
+      } finally {
+        RequestContextHolder.resetRequestAttributes();
+        MDC.clear();
+      }
+    });
+  }
+
+  private static String result(Future<String> future) throws Exception {
+    return future.get(30, TimeUnit.SECONDS);
+  }
+}
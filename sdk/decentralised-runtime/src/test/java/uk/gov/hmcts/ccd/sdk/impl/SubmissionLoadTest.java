@@ -0,0 +1,424 @@
+package uk.gov.hmcts.ccd.sdk.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import uk.gov.hmcts.ccd.data.casedetails.SecurityClassification;
+import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedCaseEvent;
+import uk.gov.hmcts.ccd.decentralised.dto.DecentralisedEventDetails;
+import uk.gov.hmcts.ccd.domain.model.definition.CaseDetails;
+import uk.gov.hmcts.ccd.sdk.CaseView;
+import uk.gov.hmcts.ccd.sdk.CaseViewRequest;
+import uk.gov.hmcts.ccd.sdk.ResolvedCCDConfig;
+import uk.gov.hmcts.ccd.sdk.ResolvedConfigRegistry;
+import uk.gov.hmcts.ccd.sdk.api.Event;
+import uk.gov.hmcts.ccd.sdk.api.HasRole;
+import uk.gov.hmcts.ccd.sdk.api.callback.SubmitResponse;
+import uk.gov.hmcts.ccd.sdk.config.CcdCaseDataMapperConfiguration;
+import uk.gov.hmcts.ccd.sdk.config.CcdWireFormatConfiguration;
+import uk.gov.hmcts.ccd.sdk.config.DecentralisedDataConfiguration;
+import uk.gov.hmcts.ccd.sdk.config.DefinitionMapperConfiguration;
+import uk.gov.hmcts.ccd.sdk.runtime.CcdCallbackExecutor;
+import uk.gov.hmcts.reform.idam.client.IdamClient;
+import uk.gov.hmcts.reform.idam.client.models.UserInfo;
+
+/**
+ * Throughput and latency of {@code POST /ccd-persistence/cases} against Postgres, with IDAM stubbed out.
+ *
+ * <p>Each scenario runs a number of concurrent writers either all submitting to one case, where they queue on the
+ * case row lock taken by {@link IdempotencyEnforcer}, or each submitting to its own case. It reports p50/p99 request
+ * latency, events per second and JDBC round trips (statement executions, commits and rollbacks) per event.
+ *
+ * <p>Opt-in, for example:
+ * {@code ./gradlew :decentralised-runtime:test --tests '*SubmissionLoadTest' -Dccd.submission.perf.events=5000
+ * -Dccd.submission.perf.writers=1,8,32}, adding {@code -Dccd.submission.perf.batching=true} to batch submissions
+ * through {@link SubmissionBatcher}.
+ *
+ * <p>Adding {@code -Dccd.submission.perf.virtual-threads=true} serves requests on virtual threads rather than
+ * Tomcat's pool of 200, so running writer counts beyond 200 with and without it shows where each mode stops scaling
+ * on the same 64 connection pool.
+ */
+@SpringBootTest(
+    classes = SubmissionLoadTest.TestConfig.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.url=jdbc:tc:postgresql:15-alpine:///ccd",
+        "spring.datasource.driver-class-name=org.testcontainers.jdbc.ContainerDatabaseDriver",
+        "spring.datasource.hikari.maximum-pool-size=64",
+        "ccd.decentralised-runtime.submission-batching.enabled=${ccd.submission.perf.batching:false}",
+        "spring.threads.virtual.enabled=${ccd.submission.perf.virtual-threads:false}"
+    })
+@EnabledIfSystemProperty(named = SubmissionLoadTest.EVENTS, matches = "\\d+")
+class SubmissionLoadTest {
+  static final String EVENTS = "ccd.submission.perf.events";
+  private static final String WRITERS = "ccd.submission.perf.writers";
+  private static final String CASE_TYPE = "LoadCase";
+  private static final String EVENT_ID = "update";
+  private static final long FIRST_REFERENCE = 1700000000000000L;
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private ObjectMapper mapper;
+
+  @Autowired
+  private RoundTripCountingDataSource dataSource;
+
+  @Value("${spring.threads.virtual.enabled}")
+  private boolean virtualThreads;
+
+  private final HttpClient client = HttpClient.newBuilder()
+      .connectTimeout(Duration.ofSeconds(10))
+      .build();
+  private final AtomicLong nextReference = new AtomicLong(FIRST_REFERENCE);
+
+  @Test
+  void reportsSubmissionThroughputForSameAndDistinctCases() throws Exception {
+    int events = Integer.getInteger(EVENTS);
+    int[] writerCounts = Arrays.stream(System.getProperty(WRITERS, "1,4,16,32").split(","))
+        .mapToInt(value -> Integer.parseInt(value.trim()))
+        .toArray();
+
+    // Warm up the JIT, connection pool and plan caches before anything is measured.
+    run(Contention.DISTINCT_CASES, 8, Math.min(events, 2_000));
+
+    for (int writers : writerCounts) {
+      for (Contention contention : Contention.values()) {
+        Result result = run(contention, writers, events);
+        System.out.printf("%s, %d writers on %s threads: %,d events, p50 %.2f ms, p99 %.2f ms, "
+                + "%,.0f events/sec, %.1f DB round trips per event%n",
+            contention, writers, virtualThreads ? "virtual" : "platform", result.events(), result.p50Millis(), result.p99Millis(),
+            result.eventsPerSecond(), result.roundTripsPerEvent());
+        assertThat(result.failures()).isZero();
+      }
+    }
+  }
+
+  private Result run(Contention contention, int writers, int events) throws Exception {
+    List<byte[]> bodies = new ArrayList<>();
+    int cases = contention == Contention.SAME_CASE ? 1 : writers;
+    for (int i = 0; i < cases; i++) {
+      byte[] body = body(nextReference.getAndIncrement());
+      // The first submission creates the case, so the measured submissions all contend on an existing row.
+      assertThat(submit(body)).isEqualTo(200);
+      bodies.add(body);
+    }
+
+    int perWriter = Math.max(1, events / writers);
+    long[][] latencies = new long[writers][perWriter];
+    AtomicLong failures = new AtomicLong();
+    ExecutorService executor = Executors.newFixedThreadPool(writers);
+    try {
+      long roundTripsBefore = dataSource.roundTrips();
+      long started = System.nanoTime();
+      List<Future<?>> futures = new ArrayList<>();
+      for (int writer = 0; writer < writers; writer++) {
+        byte[] body = bodies.get(writer % cases);
+        long[] writerLatencies = latencies[writer];
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < perWriter; i++) {
+            long requestStarted = System.nanoTime();
+            if (submit(body) != 200) {
+              failures.incrementAndGet();
+            }
+            writerLatencies[i] = System.nanoTime() - requestStarted;
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      long elapsed = System.nanoTime() - started;
+      long roundTrips = dataSource.roundTrips() - roundTripsBefore;
+
+      long[] sorted = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+      return new Result(sorted.length, failures.get(), percentileMillis(sorted, 0.50),
+          percentileMillis(sorted, 0.99), sorted.length / (elapsed / 1_000_000_000.0),
+          (double) roundTrips / sorted.length);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private int submit(byte[] body) throws Exception {
+    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/ccd-persistence/cases"))
+        .header("Content-Type", "application/json")
+        .header("Authorization", "Bearer load-test")
+        .header(IdempotencyEnforcer.IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+        .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+        .build();
+    return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+  }
+
+  private byte[] body(long reference) throws Exception {
+    var caseDetails = new CaseDetails();
+    caseDetails.setReference(reference);
+    caseDetails.setJurisdiction("TEST");
+    caseDetails.setCaseTypeId(CASE_TYPE);
+    caseDetails.setState(TestState.Submitted.name());
+    caseDetails.setVersion(1);
+    caseDetails.setSecurityClassification(SecurityClassification.PUBLIC);
+    caseDetails.setData(Map.of(
+        "applicantName", mapper.getNodeFactory().textNode("Jane Smith"),
+        "notes", mapper.getNodeFactory().textNode("x".repeat(2_000))
+    ));
+
+    var event = DecentralisedCaseEvent.builder()
+        .caseDetails(caseDetails)
+        .internalCaseId(reference - FIRST_REFERENCE + 1)
+        .eventDetails(DecentralisedEventDetails.builder()
+            .caseType(CASE_TYPE)
+            .eventId(EVENT_ID)
+            .eventName("Update")
+            .summary("Load test")
+            .build())
+        .build();
+    return mapper.writeValueAsBytes(event);
+  }
+
+  private static double percentileMillis(long[] sorted, double percentile) {
+    int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return sorted[Math.max(0, index)] / 1_000_000.0;
+  }
+
+  private enum Contention {
+    SAME_CASE,
+    DISTINCT_CASES
+  }
+
+  private record Result(long events, long failures, double p50Millis, double p99Millis, double eventsPerSecond,
+                        double roundTripsPerEvent) {}
+
+  /**
+   * Counts statement executions, commits and rollbacks, each of which is one round trip to Postgres.
+   */
+  static class RoundTripCountingDataSource extends DelegatingDataSource {
+    private static final Set<String> STATEMENT_ROUND_TRIPS = Set.of("execute", "executeQuery", "executeUpdate",
+        "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final Set<String> CONNECTION_ROUND_TRIPS = Set.of("commit", "rollback");
+
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    RoundTripCountingDataSource(DataSource target) {
+      super(target);
+    }
+
+    long roundTrips() {
+      return roundTrips.get();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      return counting(Connection.class, super.getConnection(), CONNECTION_ROUND_TRIPS);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      return counting(Connection.class, super.getConnection(username, password), CONNECTION_ROUND_TRIPS);
+    }
+
+    private <T> T counting(Class<T> type, T target, Set<String> roundTripMethods) {
+      Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+          (instance, method, args) -> {
+            if (roundTripMethods.contains(method.getName())) {
+              roundTrips.incrementAndGet();
+            }
+            Object result;
+            try {
+              result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+              throw e.getCause();
+            }
+            if (result instanceof Statement statement && method.getReturnType().isInterface()) {
+              @SuppressWarnings("unchecked")
+              Class<Statement> statementType = (Class<Statement>) method.getReturnType();
+              return counting(statementType, statement, STATEMENT_ROUND_TRIPS);
+            }
+            return result;
+          });
+      return type.cast(proxy);
+    }
+  }
+
+  @Configuration
+  @Import({
+      ServicePersistenceController.class,
+      CaseSubmissionService.class,
+      SubmissionBatcher.class,
+      DecentralisedSubmissionHandler.class,
+      LegacyCallbackSubmissionHandler.class,
+      CcdCallbackExecutor.class,
+      IdamService.class,
+      IdempotencyEnforcer.class,
+      AuditEventService.class,
+      CaseDataRepository.class,
+      CaseProjectionService.class,
+      CaseSnapshotCache.class,
+      DefinitionRegistry.class,
+      SupplementaryDataService.class,
+      DecentralisedDataConfiguration.class,
+      DefinitionMapperConfiguration.class,
+      CcdCaseDataMapperConfiguration.class,
+      CcdWireFormatConfiguration.class
+  })
+  @ImportAutoConfiguration({
+      DataSourceAutoConfiguration.class,
+      JdbcTemplateAutoConfiguration.class,
+      DataSourceTransactionManagerAutoConfiguration.class,
+      TransactionAutoConfiguration.class,
+      FlywayAutoConfiguration.class,
+      ServletWebServerFactoryAutoConfiguration.class,
+      EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+      DispatcherServletAutoConfiguration.class,
+      WebMvcAutoConfiguration.class,
+      HttpMessageConvertersAutoConfiguration.class
+  })
+  static class TestConfig {
+
+    @Bean
+    @Primary
+    ObjectMapper objectMapper() {
+      return JsonMapper.builder()
+          .findAndAddModules()
+          .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+          .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+          .build();
+    }
+
+    @Bean
+    static BeanPostProcessor roundTripCountingDataSourcePostProcessor() {
+      return new BeanPostProcessor() {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+          if (bean instanceof DataSource dataSource && !(bean instanceof RoundTripCountingDataSource)) {
+            return new RoundTripCountingDataSource(dataSource);
+          }
+          return bean;
+        }
+      };
+    }
+
+    @Bean
+    IdamClient idamClient() {
+      var userInfo = new UserInfo("sub", "load-test-user", "Load Test", "Load", "Test", List.of("caseworker"));
+      return new IdamClient(null, null) {
+        @Override
+        public UserInfo getUserInfo(String authorisation) {
+          return userInfo;
+        }
+      };
+    }
+
+    @Bean
+    CaseView<Object, TestState> loadCaseView() {
+      return new CaseView<>() {
+        @Override
+        public Set<String> caseTypeIds() {
+          return Set.of(CASE_TYPE);
+        }
+
+        @Override
+        public Object getCase(CaseViewRequest<TestState> request, Object blobCase) {
+          return blobCase;
+        }
+      };
+    }
+
+    @Bean
+    ResolvedConfigRegistry resolvedConfigRegistry() {
+      Event<Object, TestRole, TestState> event = Event.<Object, TestRole, TestState>builder()
+          .name("Update")
+          .submitHandler(payload -> SubmitResponse.<TestState>builder().build())
+          .build();
+      event.setId(EVENT_ID);
+      var resolved = new ResolvedCCDConfig<>(
+          Object.class,
+          TestState.class,
+          TestRole.class,
+          Map.of(),
+          ImmutableSet.copyOf(TestState.values())
+      ) {
+        @Override
+        public String getCaseType() {
+          return CASE_TYPE;
+        }
+
+        @Override
+        public ImmutableMap<String, Event<Object, TestRole, TestState>> getEvents() {
+          return ImmutableMap.of(EVENT_ID, event);
+        }
+      };
+
+      return new ResolvedConfigRegistry(List.of(resolved));
+    }
+  }
+
+  private enum TestState {
+    Submitted
+  }
+
+  private enum TestRole implements HasRole {
+    CASEWORKER;
+
+    @Override
+    public String getRole() {
+      return "caseworker";
+    }
+
+    @Override
+    public String getCaseTypePermissions() {
+      return "CRUD";
+    }
+  }
+}
@@ -764,8 +764,8 @@ class CcdDataMigrationTaskIntegrationTest {
 
   private void restoreTargetSchemaState() {
     jdbc.getJdbcTemplate().execute("""
-        create unique index if not exists idx_case_event_case_data_revision_unique
-        on ccd.case_event (case_data_id, case_revision)
+        create unique index if not exists idx_case_event_case_data_revision_unique_id
+        on ccd.case_event (case_data_id, case_revision) include (id)
         """);
     jdbc.getJdbcTemplate().execute("""
         do $$
@@ -1362,7 +1362,7 @@ class CcdDataMigrationTaskIntegrationTest {
           from pg_class c
           join pg_namespace n on n.oid = c.relnamespace
           where n.nspname = 'ccd'
-            and c.relname = 'idx_case_event_case_data_revision_unique'
+            and c.relname = 'idx_case_event_case_data_revision_unique_id'
         )
         """,
         Map.of(),
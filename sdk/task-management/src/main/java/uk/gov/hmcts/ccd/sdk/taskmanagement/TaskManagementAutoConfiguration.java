@@ -3,8 +3,12 @@ package uk.gov.hmcts.ccd.sdk.taskmanagement;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import feign.codec.Decoder;
 import feign.codec.Encoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import java.time.Duration;
+import javax.sql.DataSource;
 import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -100,6 +104,16 @@ public class TaskManagementAutoConfiguration {
     return new TaskOutboxRetryPolicy(properties);
   }
 
+  @Bean
+  @ConditionalOnProperty(name = "task-management.outbox.retention.enabled", havingValue = "true")
+  public TaskOutboxRetention taskOutboxRetention(
+      TaskOutboxRepository repository,
+      TaskManagementProperties properties
+  ) {
+    TaskManagementProperties.Retention retention = properties.getOutbox().getRetention();
+    return new TaskOutboxRetention(repository, retention.getProcessedAge(), retention.getBatchSize());
+  }
+
   @Bean
   @ConditionalOnProperty(
       name = "task-management.outbox.poller.enabled",
@@ -111,9 +125,35 @@ public class TaskManagementAutoConfiguration {
       TaskManagementApiClient taskManagementApiClient,
       TaskOutboxRetryPolicy retryPolicy,
       TaskManagementProperties properties,
-      ObjectMapper objectMapper
+      ObjectMapper objectMapper,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+      ObjectProvider<MeterRegistry> meterRegistry
+  ) {
+    TaskManagementProperties.Poller poller = properties.getOutbox().getPoller();
+    return new TaskOutboxPoller(
+        repository,
+        taskManagementApiClient,
+        retryPolicy,
+        poller.getBatchSize(),
+        poller.getConcurrency(),
+        virtualThreads,
+        objectMapper,
+        meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)
+    );
+  }
+
+  @Bean
+  @ConditionalOnProperty(
+      prefix = "task-management.outbox.poller",
+      name = {"enabled", "listen"},
+      havingValue = "true",
+      matchIfMissing = true
+  )
+  public TaskOutboxListener taskOutboxListener(
+      DataSource dataSource,
+      TaskOutboxPoller poller,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
   ) {
-    int batchSize = properties.getOutbox().getPoller().getBatchSize();
-    return new TaskOutboxPoller(repository, taskManagementApiClient, retryPolicy, batchSize, objectMapper);
+    return new TaskOutboxListener(dataSource, poller, virtualThreads);
   }
 }
@@ -20,11 +20,13 @@ public class TaskManagementProperties {
   public static class Outbox {
     private Poller poller = new Poller();
     private Retry retry = new Retry();
+    private Retention retention = new Retention();
   }
 
   @Data
   public static class Poller {
     private int batchSize = 5;
+    private int concurrency = 1;
     private Duration processingTimeout = Duration.ofMinutes(5);
   }
 
@@ -35,4 +37,10 @@ public class TaskManagementProperties {
     private double multiplier = 2.0;
     private int maxAttempts = 0;
   }
+
+  @Data
+  public static class Retention {
+    private Duration processedAge = Duration.ofDays(30);
+    private int batchSize = 1000;
+  }
 }
@@ -0,0 +1,140 @@
+package uk.gov.hmcts.ccd.sdk.taskmanagement;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Listens on {@code ccd_task_outbox_changed}, raised by a trigger whenever records are added to the task outbox, and
+ * drains the outbox as soon as they are committed rather than at the next scheduled poll.
+ *
+ * <p>Notifications sent while the listener is disconnected are lost, so it also drains each time it (re)connects.
+ * The scheduled poll remains as a fallback, and picks up retries and records scheduled for later.
+ */
+@Slf4j
+public class TaskOutboxListener implements SmartLifecycle {
+
+  static final String NOTIFICATION_CHANNEL = "ccd_task_outbox_changed";
+  private static final int NOTIFICATION_WAIT_MS = 10_000;
+  private static final int NOTIFICATION_RECONNECT_DELAY_MS = 1000;
+  private static final int CONNECTION_VALIDATION_TIMEOUT_SECONDS = 5;
+
+  private final DataSource dataSource;
+  private final TaskOutboxPoller poller;
+  private final AtomicBoolean terminated = new AtomicBoolean(false);
+  private final AtomicBoolean running = new AtomicBoolean(false);
+  private final ExecutorService listenerExecutor;
+
+  public TaskOutboxListener(DataSource dataSource, TaskOutboxPoller poller, boolean virtualThreads) {
+    this.dataSource = dataSource;
+    this.poller = poller;
+    this.listenerExecutor = Executors.newSingleThreadExecutor(
+        (virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform()).name("task-outbox-listener").factory());
+  }
+
+  @Override
+  public void start() {
+    if (terminated.get()) {
+      return;
+    }
+    if (running.compareAndSet(false, true)) {
+      listenerExecutor.submit(this::listen);
+    }
+  }
+
+  @Override
+  public void stop() {
+    terminated.set(true);
+    listenerExecutor.shutdownNow();
+    try {
+      long waitMs = NOTIFICATION_WAIT_MS + 5_000L;
+      if (!listenerExecutor.awaitTermination(waitMs, TimeUnit.MILLISECONDS)) {
+        log.warn("Task outbox listener did not stop within {}ms", waitMs);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running.get();
+  }
+
+  private void listen() {
+    try {
+      while (!terminated.get()) {
+        try (Connection connection = dataSource.getConnection()) {
+          connection.setAutoCommit(true);
+          try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + NOTIFICATION_CHANNEL);
+          }
+
+          try {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            log.info("Task outbox listener listening for PostgreSQL notifications on {}", NOTIFICATION_CHANNEL);
+
+            // Records may have been added while disconnected.
+            poller.drain();
+            while (!terminated.get()) {
+              waitForNotifications(connection, pgConnection);
+            }
+          } finally {
+            unlistenQuietly(connection);
+          }
+        } catch (Exception ex) {
+          if (terminated.get()) {
+            log.debug("Task outbox listener stopped after shutdown signal", ex);
+          } else {
+            log.warn("Task outbox listener failed; reconnecting", ex);
+            sleepBeforeReconnect();
+          }
+        }
+      }
+    } finally {
+      running.set(false);
+    }
+  }
+
+  private void waitForNotifications(Connection connection, PGConnection pgConnection) throws SQLException {
+    PGNotification[] notifications = pgConnection.getNotifications(NOTIFICATION_WAIT_MS);
+    if (notifications == null || notifications.length == 0) {
+      // A quiet channel and a dead connection look the same, so check which before waiting again.
+      if (!connection.isValid(CONNECTION_VALIDATION_TIMEOUT_SECONDS)) {
+        throw new SQLException("Task outbox listener connection is no longer valid");
+      }
+      return;
+    }
+    log.debug("Task outbox listener received {} PostgreSQL notifications", notifications.length);
+    poller.drain();
+  }
+
+  private void unlistenQuietly(Connection connection) {
+    try {
+      if (!connection.isClosed()) {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("UNLISTEN " + NOTIFICATION_CHANNEL);
+        }
+      }
+    } catch (SQLException ex) {
+      log.debug("Failed to unlisten task outbox notification channel", ex);
+    }
+  }
+
+  private void sleepBeforeReconnect() {
+    try {
+      Thread.sleep(NOTIFICATION_RECONNECT_DELAY_MS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
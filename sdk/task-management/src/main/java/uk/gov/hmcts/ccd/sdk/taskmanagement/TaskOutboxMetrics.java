@@ -0,0 +1,44 @@
+package uk.gov.hmcts.ccd.sdk.taskmanagement;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import uk.gov.hmcts.ccd.sdk.taskmanagement.model.outbox.TaskOutboxRecord;
+
+/**
+ * Micrometer meters for task outbox dispatch.
+ */
+final class TaskOutboxMetrics {
+  static final String PREFIX = "ccd.task.outbox";
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final Timer lag;
+
+  TaskOutboxMetrics(MeterRegistry registry) {
+    Gauge.builder(PREFIX + ".in.flight", inFlight, AtomicInteger::get)
+        .description("Task outbox records being sent to Task Management")
+        .register(registry);
+    this.lag = Timer.builder(PREFIX + ".lag")
+        .description("Time from a task outbox record falling due to it being sent")
+        .register(registry);
+  }
+
+  void dispatching(List<TaskOutboxRecord> records) {
+    inFlight.addAndGet(records.size());
+    LocalDateTime now = LocalDateTime.now();
+    for (TaskOutboxRecord record : records) {
+      if (record.dueAt() != null) {
+        Duration waited = Duration.between(record.dueAt(), now);
+        lag.record(waited.isNegative() ? Duration.ZERO : waited);
+      }
+    }
+  }
+
+  void dispatched(List<TaskOutboxRecord> records) {
+    inFlight.addAndGet(-records.size());
+  }
+}
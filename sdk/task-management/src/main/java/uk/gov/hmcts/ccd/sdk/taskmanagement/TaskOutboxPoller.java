@@ -2,9 +2,22 @@ package uk.gov.hmcts.ccd.sdk.taskmanagement;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -13,6 +26,7 @@ import uk.gov.hmcts.ccd.sdk.taskmanagement.model.TaskAction;
 import uk.gov.hmcts.ccd.sdk.taskmanagement.model.TaskPayload;
 import uk.gov.hmcts.ccd.sdk.taskmanagement.model.TaskReconfigurePayload;
 import uk.gov.hmcts.ccd.sdk.taskmanagement.model.outbox.ReconfigureTaskOutboxPayload;
+import uk.gov.hmcts.ccd.sdk.taskmanagement.model.outbox.TaskOutboxOutcome;
 import uk.gov.hmcts.ccd.sdk.taskmanagement.model.outbox.TaskOutboxRecord;
 import uk.gov.hmcts.ccd.sdk.taskmanagement.model.outbox.TerminateTaskOutboxPayload;
 import uk.gov.hmcts.ccd.sdk.taskmanagement.model.request.TaskCreateRequest;
@@ -21,17 +35,16 @@ import uk.gov.hmcts.ccd.sdk.taskmanagement.model.request.TaskTerminationRequest;
 import uk.gov.hmcts.ccd.sdk.taskmanagement.search.GetTasksResponse;
 
 @Slf4j
-public class TaskOutboxPoller {
-  @FunctionalInterface
-  private interface TaskProcessor {
-    ResponseEntity<?> process(TaskOutboxRecord record) throws IOException;
-  }
-
+public class TaskOutboxPoller implements AutoCloseable {
   private final TaskOutboxRepository repository;
   private final TaskManagementApiClient taskManagementApiClient;
   private final TaskOutboxRetryPolicy retryPolicy;
   private final int batchSize;
   private final ObjectMapper objectMapper;
+  private final TaskOutboxMetrics metrics;
+  private final ExecutorService dispatcher;
+  // The scheduled poll and the outbox listener take turns rather than claiming alongside each other.
+  private final ReentrantLock polling = new ReentrantLock();
 
   public TaskOutboxPoller(
       TaskOutboxRepository repository,
@@ -40,81 +53,194 @@ public class TaskOutboxPoller {
       int batchSize,
       ObjectMapper objectMapper
   ) {
+    this(repository, taskManagementApiClient, retryPolicy, batchSize, 1, false, objectMapper, Metrics.globalRegistry);
+  }
+
+  /**
+   * Creates a poller that sends up to {@code concurrency} claimed records to Task Management at a time.
+   *
+   * <p>Records sent at the same time are always for different cases.
+   */
+  public TaskOutboxPoller(
+      TaskOutboxRepository repository,
+      TaskManagementApiClient taskManagementApiClient,
+      TaskOutboxRetryPolicy retryPolicy,
+      int batchSize,
+      int concurrency,
+      boolean virtualThreads,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry
+  ) {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("task-management.outbox.poller.concurrency must be greater than zero");
+    }
     this.repository = repository;
     this.taskManagementApiClient = taskManagementApiClient;
     this.retryPolicy = retryPolicy;
     this.batchSize = batchSize;
     this.objectMapper = objectMapper;
+    this.metrics = new TaskOutboxMetrics(meterRegistry);
+    this.dispatcher = concurrency == 1 ? null : Executors.newFixedThreadPool(concurrency,
+        (virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform()).name("task-outbox-dispatch-", 1).factory());
   }
 
   @Scheduled(fixedDelayString = "${task-management.outbox.poller.delay:1000}")
   public void poll() {
-    List<TaskOutboxRecord> records = repository.findPending(batchSize, retryPolicy.getMaxAttempts());
-    int statusCode;
+    polling.lock();
+    try {
+      claimAndDispatch();
+    } finally {
+      polling.unlock();
+    }
+  }
+
+  /**
+   * Polls until a claim comes back empty, as sending a case's record can release the next one for that case.
+   */
+  public void drain() {
+    polling.lock();
+    try {
+      int claimed;
+      do {
+        claimed = claimAndDispatch();
+      } while (claimed > 0 && !Thread.currentThread().isInterrupted());
+    } finally {
+      polling.unlock();
+    }
+  }
+
+  private int claimAndDispatch() {
+    List<TaskOutboxRecord> records = repository.claimPending(batchSize, retryPolicy.getMaxAttempts());
+    List<List<TaskOutboxRecord>> dispatches = groupForDispatch(records);
+    List<TaskOutboxOutcome> outcomes = new ArrayList<>(records.size());
+    try {
+      if (dispatcher == null || dispatches.size() < 2) {
+        for (List<TaskOutboxRecord> group : dispatches) {
+          outcomes.addAll(dispatch(group));
+        }
+      } else {
+        List<Future<List<TaskOutboxOutcome>>> dispatched = dispatches.stream()
+            .map(group -> dispatcher.submit(() -> dispatch(group)))
+            .toList();
+        awaitAll(dispatched, outcomes);
+      }
+    } finally {
+      // Anything left unrecorded is claimed again once its lease expires.
+      repository.recordOutcomes(outcomes);
+    }
+    return records.size();
+  }
 
+  /**
+   * Groups claimed records into what is sent in one go. Complete or cancel records for the same case are merged into
+   * a single search and termination, and every other record is sent on its own.
+   */
+  private static List<List<TaskOutboxRecord>> groupForDispatch(List<TaskOutboxRecord> records) {
+    Map<String, List<TaskOutboxRecord>> dispatches = new LinkedHashMap<>();
     for (TaskOutboxRecord record : records) {
-      if (!repository.markProcessing(record.id())) {
-        continue;
+      String key = isTermination(record) ? record.caseId() + ":" + record.requestedAction() : "id:" + record.id();
+      dispatches.computeIfAbsent(key, ignored -> new ArrayList<>()).add(record);
+    }
+    return List.copyOf(dispatches.values());
+  }
+
+  private static boolean isTermination(TaskOutboxRecord record) {
+    return TaskAction.COMPLETE.getId().equalsIgnoreCase(record.requestedAction())
+        || TaskAction.CANCEL.getId().equalsIgnoreCase(record.requestedAction());
+  }
+
+  @Override
+  public void close() {
+    if (dispatcher == null) {
+      return;
+    }
+    dispatcher.shutdown();
+    try {
+      if (!dispatcher.awaitTermination(30, TimeUnit.SECONDS)) {
+        log.warn("Task outbox dispatch did not finish within 30s");
       }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
 
+  private void awaitAll(List<Future<List<TaskOutboxOutcome>>> dispatched, List<TaskOutboxOutcome> outcomes) {
+    for (Future<List<TaskOutboxOutcome>> future : dispatched) {
       try {
-        TaskAction action = TaskAction.fromId(record.requestedAction());
-
-        TaskProcessor processor = switch (action) {
-          case INITIATE -> this::createTask;
-          case COMPLETE -> this::completeTask;
-          case CANCEL -> this::cancelTask;
-          case RECONFIGURE -> this::reconfigureTask;
-        };
-
-        ResponseEntity<?> response = processor.process(record);
-        statusCode = response != null ? response.getStatusCode().value() : 500;
-        log.info("Task outbox {} response body {}", record.id(), response != null ? response.getBody() : null);
-        if (isUnsuccessfulRequest(record, response)) {
-          continue;
-        }
-
-        repository.markProcessed(record.id(), statusCode);
-        log.info("Task outbox {} processed with status {}", record.id(), statusCode);
-      } catch (FeignException ex) {
-        log.warn(
-            "Task outbox {} create failed with status {}: {}",
-            record.id(),
-            ex.status(),
-            ex.contentUTF8(),
-            ex
-        );
-        handleFailure(record, ex.status(), ex.contentUTF8());
-      } catch (IOException ex) {
-        log.error("Task outbox {} payload could not be parsed", record.id(), ex);
-        handleFailure(record, null, ex.getMessage());
-      } catch (RuntimeException ex) {
-        log.error("Task outbox {} create failed", record.id(), ex);
-        handleFailure(record, null, ex.getMessage());
+        outcomes.addAll(future.get());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException ex) {
+        log.error("Task outbox dispatch failed", ex.getCause());
       }
     }
   }
 
-  private boolean isUnsuccessfulRequest(TaskOutboxRecord record, ResponseEntity<?> response) {
-    TaskAction action = TaskAction.fromId(record.requestedAction());
-    if (response == null) {
-      log.warn("Task outbox {} received null response for action {}", record.id(), action.getId());
-      handleFailure(record, null, "Task outbox received null response");
-      return true;
+  private List<TaskOutboxOutcome> dispatch(List<TaskOutboxRecord> records) {
+    metrics.dispatching(records);
+    try {
+      return process(records);
+    } finally {
+      metrics.dispatched(records);
     }
+  }
+
+  private List<TaskOutboxOutcome> process(List<TaskOutboxRecord> records) {
+    TaskOutboxRecord record = records.getFirst();
+    Object ids = records.size() == 1 ? record.id() : records.stream().map(TaskOutboxRecord::id).toList();
+    try {
+      TaskAction action = TaskAction.fromId(record.requestedAction());
+
+      ResponseEntity<?> response = switch (action) {
+        case INITIATE -> createTask(record);
+        case COMPLETE, CANCEL -> terminateTasks(records, action);
+        case RECONFIGURE -> reconfigureTask(record);
+      };
+      log.info("Task outbox {} response body {}", ids, response != null ? response.getBody() : null);
+      if (response == null) {
+        log.warn("Task outbox {} received null response for action {}", ids, action.getId());
+        return failures(records, null, "Task outbox received null response");
+      }
+
+      int statusCode = response.getStatusCode().value();
+      if (!response.getStatusCode().is2xxSuccessful()) {
+        log.warn(
+            "Task outbox {} response unsuccessful for action {} with status {}",
+            ids,
+            action.getId(),
+            statusCode
+        );
+        return failures(records, statusCode, "Task outbox response unsuccessful");
+      }
 
-    if (!response.getStatusCode().is2xxSuccessful()) {
+      log.info("Task outbox {} processed with status {}", ids, statusCode);
+      return records.stream()
+          .map(processed -> TaskOutboxOutcome.processed(processed.id(), statusCode))
+          .toList();
+    } catch (FeignException ex) {
       log.warn(
-          "Task outbox {} response unsuccessful for action {} with status {}",
-          record.id(),
-          action.getId(),
-          response.getStatusCode().value()
+          "Task outbox {} create failed with status {}: {}",
+          ids,
+          ex.status(),
+          ex.contentUTF8(),
+          ex
       );
-      handleFailure(record, response.getStatusCode().value(), "Task outbox response unsuccessful");
-      return true;
+      return failures(records, ex.status(), ex.contentUTF8());
+    } catch (IOException ex) {
+      if (records.size() > 1) {
+        // Send each on its own so that one unreadable payload does not hold back the rest.
+        log.warn("Task outbox {} payloads could not be merged", ids, ex);
+        return records.stream()
+            .flatMap(single -> process(List.of(single)).stream())
+            .toList();
+      }
+      log.error("Task outbox {} payload could not be parsed", ids, ex);
+      return failures(records, null, ex.getMessage());
+    } catch (RuntimeException ex) {
+      log.error("Task outbox {} create failed", ids, ex);
+      return failures(records, null, ex.getMessage());
     }
-
-    return false;
   }
 
   private ResponseEntity<?> createTask(TaskOutboxRecord record) throws IOException {
@@ -123,19 +249,18 @@ public class TaskOutboxPoller {
     return taskManagementApiClient.createTask(request);
   }
 
-  private ResponseEntity<?> cancelTask(TaskOutboxRecord record) throws IOException {
-    return terminateTask(record, TaskAction.CANCEL);
-  }
-
-  private ResponseEntity<?> completeTask(TaskOutboxRecord record) throws IOException {
-    return terminateTask(record, TaskAction.COMPLETE);
-  }
-
-  private ResponseEntity<?> terminateTask(TaskOutboxRecord record, TaskAction action) throws IOException {
-    TerminateTaskOutboxPayload terminateTaskOutboxPayload =
-        objectMapper.readValue(record.payload(), TerminateTaskOutboxPayload.class);
-    String caseId = terminateTaskOutboxPayload.caseId();
-    List<String> taskTypes = terminateTaskOutboxPayload.taskTypes();
+  private ResponseEntity<?> terminateTasks(List<TaskOutboxRecord> records, TaskAction action) throws IOException {
+    String caseId = null;
+    Set<String> mergedTaskTypes = new LinkedHashSet<>();
+    for (TaskOutboxRecord record : records) {
+      TerminateTaskOutboxPayload terminateTaskOutboxPayload =
+          objectMapper.readValue(record.payload(), TerminateTaskOutboxPayload.class);
+      caseId = terminateTaskOutboxPayload.caseId();
+      if (terminateTaskOutboxPayload.taskTypes() != null) {
+        mergedTaskTypes.addAll(terminateTaskOutboxPayload.taskTypes());
+      }
+    }
+    List<String> taskTypes = List.copyOf(mergedTaskTypes);
 
     var tasksToTerminate = taskManagementApiClient.getTasks(caseId, taskTypes);
 
@@ -197,10 +322,15 @@ public class TaskOutboxPoller {
     return taskManagementApiClient.reconfigureTask(request);
   }
 
-  private void handleFailure(TaskOutboxRecord record, Integer statusCode, String body) {
+  private List<TaskOutboxOutcome> failures(List<TaskOutboxRecord> records, Integer statusCode, String body) {
+    return records.stream()
+        .map(record -> failure(record, statusCode, body))
+        .toList();
+  }
+
+  private TaskOutboxOutcome failure(TaskOutboxRecord record, Integer statusCode, String body) {
     int nextAttemptCount = record.attemptCount() + 1;
     LocalDateTime nextAttemptAt = retryPolicy.nextAttemptAt(nextAttemptCount, LocalDateTime.now());
-    repository.markFailed(record.id(), statusCode, body, nextAttemptAt);
     if (nextAttemptAt == null) {
       log.warn(
           "Task outbox {} failed with status {}, retries exhausted",
@@ -215,5 +345,6 @@ public class TaskOutboxPoller {
           nextAttemptAt
       );
     }
+    return TaskOutboxOutcome.failed(record.id(), statusCode, body, nextAttemptAt);
   }
 }
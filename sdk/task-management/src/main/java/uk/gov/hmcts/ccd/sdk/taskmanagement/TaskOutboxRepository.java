@@ -1,12 +1,17 @@
 package uk.gov.hmcts.ccd.sdk.taskmanagement;
 
+import java.sql.Types;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.transaction.annotation.Transactional;
+import uk.gov.hmcts.ccd.sdk.taskmanagement.model.TaskAction;
+import uk.gov.hmcts.ccd.sdk.taskmanagement.model.outbox.TaskOutboxOutcome;
 import uk.gov.hmcts.ccd.sdk.taskmanagement.model.outbox.TaskOutboxRecord;
 import uk.gov.hmcts.ccd.sdk.taskmanagement.model.outbox.TaskOutboxStatus;
 
@@ -47,125 +52,153 @@ public class TaskOutboxRepository {
     }
   }
 
-  public List<TaskOutboxRecord> findPending(int limit, int maxAttempts) {
+  /**
+   * Claims up to {@code limit} records that are due, leasing them to the caller for the processing timeout.
+   *
+   * <p>Rows already locked by another poller are skipped rather than waited on, so replicas claim disjoint records.
+   * A record is only claimed once every earlier record of its case has been sent or has exhausted its retries, so
+   * records of one case are sent in the order they were enqueued. The exception is a run of complete or cancel records
+   * for a case that are all due, which are claimed together so that they can be sent as one. Records scheduled for
+   * later do not hold back those enqueued after them.
+   */
+  public List<TaskOutboxRecord> claimPending(int limit, int maxAttempts) {
     LocalDateTime now = LocalDateTime.now();
-    return jdbc.query(
+    // Pending statuses are spelt out rather than bound so that the planner can use idx_task_outbox_pending.
+    List<TaskOutboxRecord> claimed = jdbc.query(
         """
-            select id, payload::text, requested_action, attempt_count
-            from ccd.task_outbox
-            where status::text in (:newStatus, :failedStatus, :processingStatus)
-             and (next_attempt_at is null or next_attempt_at <= :now)
-             and (:maxAttempts = 0 or attempt_count < :maxAttempts)
-            order by id
-            limit :limit
+            update ccd.task_outbox o
+            set status = cast(:processingStatus as ccd.task_outbox_status),
+              updated = :now,
+              next_attempt_at = :leaseExpiresAt
+            from (
+              select candidate.id, coalesce(candidate.next_attempt_at, candidate.created) as due_at
+              from ccd.task_outbox candidate
+              where candidate.status in ('NEW', 'PROCESSING', 'FAILED')
+               and (candidate.next_attempt_at is null or candidate.next_attempt_at <= :now)
+               and (:maxAttempts = 0 or candidate.attempt_count < :maxAttempts)
+               and not exists (
+                 select 1
+                 from ccd.task_outbox earlier
+                 where earlier.case_id = candidate.case_id
+                  and earlier.id < candidate.id
+                  and earlier.status in ('NEW', 'PROCESSING', 'FAILED')
+                  and (:maxAttempts = 0 or earlier.attempt_count < :maxAttempts)
+                  and (
+                    earlier.status <> 'NEW'
+                    or earlier.next_attempt_at is null
+                    or earlier.next_attempt_at <= :now
+                  )
+                  and not (
+                    candidate.requested_action in (
+                        cast(:completeAction as ccd.task_action),
+                        cast(:cancelAction as ccd.task_action)
+                      )
+                    and earlier.requested_action = candidate.requested_action
+                    and (earlier.next_attempt_at is null or earlier.next_attempt_at <= :now)
+                  )
+               )
+              order by candidate.id
+              limit :limit
+              for update skip locked
+            ) claimable
+            where o.id = claimable.id
+            returning o.id, o.case_id, o.payload::text as payload, o.requested_action, o.attempt_count,
+              claimable.due_at
             """,
         Map.of(
-            "newStatus", TaskOutboxStatus.NEW.name(),
-            "failedStatus", TaskOutboxStatus.FAILED.name(),
             "processingStatus", TaskOutboxStatus.PROCESSING.name(),
+            "completeAction", TaskAction.COMPLETE.getId(),
+            "cancelAction", TaskAction.CANCEL.getId(),
             "now", now,
+            "leaseExpiresAt", now.plus(processingTimeout),
             "limit", limit,
             "maxAttempts", maxAttempts
         ),
         (rs, rowNum) -> new TaskOutboxRecord(
             rs.getLong("id"),
+            rs.getLong("case_id"),
             rs.getString("payload"),
             rs.getString("requested_action"),
-            rs.getInt("attempt_count")
+            rs.getInt("attempt_count"),
+            rs.getObject("due_at", LocalDateTime.class)
         )
     );
+    // Returning does not preserve the order of the subquery.
+    return claimed.stream()
+        .sorted(Comparator.comparingLong(TaskOutboxRecord::id))
+        .toList();
   }
 
-  public boolean markProcessing(long id) {
-    LocalDateTime now = LocalDateTime.now();
-    LocalDateTime nextAttemptAt = now.plus(processingTimeout);
-    int updated = jdbc.update(
+  /**
+   * Deletes up to {@code limit} processed records created before {@code createdBefore}, along with their history.
+   */
+  public int deleteProcessed(LocalDateTime createdBefore, int limit) {
+    return jdbc.update(
         """
-            update ccd.task_outbox
-            set status = cast(:status as ccd.task_outbox_status), updated = :updated, next_attempt_at = :nextAttemptAt
-            where id = :id
-             and status::text in (:newStatus, :failedStatus, :processingStatus)
-             and (next_attempt_at is null or next_attempt_at <= :now)
+            delete from ccd.task_outbox
+            where id in (
+              select id
+              from ccd.task_outbox
+              where status = 'PROCESSED'
+               and created < :createdBefore
+              order by created
+              limit :limit
+              for update skip locked
+            )
             """,
         Map.of(
-            "id", id,
-            "status", TaskOutboxStatus.PROCESSING.name(),
-            "newStatus", TaskOutboxStatus.NEW.name(),
-            "failedStatus", TaskOutboxStatus.FAILED.name(),
-            "processingStatus", TaskOutboxStatus.PROCESSING.name(),
-            "updated", now,
-            "nextAttemptAt", nextAttemptAt,
-            "now", now
+            "createdBefore", createdBefore,
+            "limit", limit
         )
     );
-    return updated == 1;
   }
 
   @Transactional
   public void markProcessed(long id, int statusCode) {
-    LocalDateTime now = LocalDateTime.now();
-    MapSqlParameterSource params = new MapSqlParameterSource()
-        .addValue("id", id)
-        .addValue("status", TaskOutboxStatus.PROCESSED.name())
-        .addValue("updated", now)
-        .addValue("nextAttemptAt", null);
-
-    jdbc.update(
-        """
-            update ccd.task_outbox
-            set status = cast(:status as ccd.task_outbox_status),
-              updated = :updated,
-              next_attempt_at = :nextAttemptAt
-            where id = :id
-            """,
-        params
-    );
-
-    recordHistory(id, TaskOutboxStatus.PROCESSED, statusCode, null, now);
+    recordOutcomes(List.of(TaskOutboxOutcome.processed(id, statusCode)));
   }
 
   @Transactional
   public void markFailed(long id, Integer statusCode, String error, LocalDateTime nextAttemptAt) {
-    LocalDateTime now = LocalDateTime.now();
-    MapSqlParameterSource params = new MapSqlParameterSource()
-        .addValue("id", id)
-        .addValue("status", TaskOutboxStatus.FAILED.name())
-        .addValue("updated", now)
-        .addValue("nextAttemptAt", nextAttemptAt);
+    recordOutcomes(List.of(TaskOutboxOutcome.failed(id, statusCode, error, nextAttemptAt)));
+  }
 
-    jdbc.update(
+  /**
+   * Records the outcome of each claimed record and its history, as one batch per statement.
+   */
+  @Transactional
+  public void recordOutcomes(List<TaskOutboxOutcome> outcomes) {
+    if (outcomes.isEmpty()) {
+      return;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    SqlParameterSource[] params = outcomes.stream()
+        .map(outcome -> new MapSqlParameterSource()
+            .addValue("id", outcome.id())
+            .addValue("status", outcome.status().name())
+            .addValue("attemptIncrement", outcome.status() == TaskOutboxStatus.FAILED ? 1 : 0)
+            .addValue("statusCode", outcome.statusCode(), Types.INTEGER)
+            .addValue("error", outcome.error(), Types.VARCHAR)
+            .addValue("nextAttemptAt", outcome.nextAttemptAt(), Types.TIMESTAMP)
+            .addValue("updated", now))
+        .toArray(SqlParameterSource[]::new);
+
+    jdbc.batchUpdate(
         """
             update ccd.task_outbox
             set status = cast(:status as ccd.task_outbox_status),
               updated = :updated,
-              attempt_count = attempt_count + 1,
+              attempt_count = attempt_count + :attemptIncrement,
               next_attempt_at = :nextAttemptAt
             where id = :id
             """,
         params
     );
 
-    recordHistory(id, TaskOutboxStatus.FAILED, statusCode, error, now);
-  }
-
-  private void recordHistory(
-      long id,
-      TaskOutboxStatus status,
-      Integer statusCode,
-      String error,
-      LocalDateTime created
-  ) {
-    MapSqlParameterSource params = new MapSqlParameterSource()
-        .addValue("taskOutboxId", id)
-        .addValue("status", status.name())
-        .addValue("statusCode", statusCode)
-        .addValue("error", error)
-        .addValue("created", created);
-
-    jdbc.update(
+    jdbc.batchUpdate(
         """
             insert into ccd.task_outbox_history (task_outbox_id, status, response_code, error, created)
-            values (:taskOutboxId, cast(:status as ccd.task_outbox_status), :statusCode, :error, :created)
+            values (:id, cast(:status as ccd.task_outbox_status), :statusCode, :error, :updated)
             """,
         params
     );
@@ -0,0 +1,47 @@
+package uk.gov.hmcts.ccd.sdk.taskmanagement;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Deletes processed task outbox records, and their history, once they are older than the configured age.
+ *
+ * <p>Records are deleted in batches, each in its own transaction, so that a large backlog never holds locks for long.
+ * Failed records are kept however old they are.
+ */
+@Slf4j
+public class TaskOutboxRetention {
+
+  private final TaskOutboxRepository repository;
+  private final Duration processedAge;
+  private final int batchSize;
+
+  public TaskOutboxRetention(TaskOutboxRepository repository, Duration processedAge, int batchSize) {
+    if (processedAge == null || processedAge.isNegative() || processedAge.isZero()) {
+      throw new IllegalArgumentException("task-management.outbox.retention.processed-age must be greater than zero");
+    }
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("task-management.outbox.retention.batch-size must be greater than zero");
+    }
+    this.repository = repository;
+    this.processedAge = processedAge;
+    this.batchSize = batchSize;
+  }
+
+  @Scheduled(fixedDelayString = "${task-management.outbox.retention.delay:3600000}")
+  public void purge() {
+    LocalDateTime createdBefore = LocalDateTime.now().minus(processedAge);
+    int purged = 0;
+    int deleted;
+    do {
+      deleted = repository.deleteProcessed(createdBefore, batchSize);
+      purged += deleted;
+    } while (deleted == batchSize && !Thread.currentThread().isInterrupted());
+
+    if (purged > 0) {
+      log.info("Deleted {} processed task outbox records created before {}", purged, createdBefore);
+    }
+  }
+}
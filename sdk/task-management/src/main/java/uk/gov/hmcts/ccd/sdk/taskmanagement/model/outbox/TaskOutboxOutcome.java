@@ -0,0 +1,20 @@
+package uk.gov.hmcts.ccd.sdk.taskmanagement.model.outbox;
+
+import java.time.LocalDateTime;
+
+public record TaskOutboxOutcome(
+    long id,
+    TaskOutboxStatus status,
+    Integer statusCode,
+    String error,
+    LocalDateTime nextAttemptAt
+) {
+
+  public static TaskOutboxOutcome processed(long id, int statusCode) {
+    return new TaskOutboxOutcome(id, TaskOutboxStatus.PROCESSED, statusCode, null, null);
+  }
+
+  public static TaskOutboxOutcome failed(long id, Integer statusCode, String error, LocalDateTime nextAttemptAt) {
+    return new TaskOutboxOutcome(id, TaskOutboxStatus.FAILED, statusCode, error, nextAttemptAt);
+  }
+}
@@ -1,4 +1,13 @@
 package uk.gov.hmcts.ccd.sdk.taskmanagement.model.outbox;
 
-public record TaskOutboxRecord(long id, String payload, String requestedAction, int attemptCount) {
+import java.time.LocalDateTime;
+
+public record TaskOutboxRecord(
+    long id,
+    long caseId,
+    String payload,
+    String requestedAction,
+    int attemptCount,
+    LocalDateTime dueAt
+) {
 }
@@ -71,6 +71,14 @@ class TaskManagementAutoConfigurationTest {
         });
   }
 
+  @Test
+  void shouldOnlyRegisterOutboxRetentionWhenEnabled() {
+    contextRunner.run(context -> assertThat(context).doesNotHaveBean(TaskOutboxRetention.class));
+    contextRunner
+        .withPropertyValues("task-management.outbox.retention.enabled=true")
+        .run(context -> assertThat(context).hasSingleBean(TaskOutboxRetention.class));
+  }
+
   @Configuration
   static class TestConfig {
     @Bean
@@ -0,0 +1,63 @@
+package uk.gov.hmcts.ccd.sdk.taskmanagement;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+class TaskOutboxListenerTest {
+
+  private final DataSource dataSource = mock(DataSource.class);
+  private final Connection connection = mock(Connection.class);
+  private final Statement statement = mock(Statement.class);
+  private final PGConnection pgConnection = mock(PGConnection.class);
+  private final TaskOutboxPoller poller = mock(TaskOutboxPoller.class);
+  private final TaskOutboxListener listener = new TaskOutboxListener(dataSource, poller, false);
+
+  @AfterEach
+  void tearDown() {
+    listener.stop();
+  }
+
+  @Test
+  void drainsOnConnectAndOnEachNotification() throws Exception {
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.createStatement()).thenReturn(statement);
+    when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+    when(connection.isValid(anyInt())).thenReturn(true);
+    when(pgConnection.getNotifications(anyInt()))
+        .thenReturn(new PGNotification[] {mock(PGNotification.class)})
+        .thenAnswer(invocation -> {
+          Thread.sleep(50);
+          return null;
+        });
+
+    listener.start();
+
+    verify(statement, timeout(5_000)).execute("LISTEN " + TaskOutboxListener.NOTIFICATION_CHANNEL);
+    verify(poller, timeout(5_000).times(2)).drain();
+  }
+
+  @Test
+  void drainsAgainAfterReconnecting() throws Exception {
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.createStatement()).thenReturn(statement);
+    when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+    when(connection.isValid(anyInt())).thenReturn(false);
+    when(pgConnection.getNotifications(anyInt())).thenReturn(null);
+
+    listener.start();
+
+    verify(poller, timeout(5_000).atLeast(2)).drain();
+  }
+}
@@ -1,19 +1,30 @@
 package uk.gov.hmcts.ccd.sdk.taskmanagement;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
 import java.util.List;
-import org.junit.jupiter.api.BeforeEach;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.http.ResponseEntity;
 import uk.gov.hmcts.ccd.sdk.taskmanagement.model.TaskAction;
+import uk.gov.hmcts.ccd.sdk.taskmanagement.model.TaskPayload;
+import uk.gov.hmcts.ccd.sdk.taskmanagement.model.outbox.TaskOutboxOutcome;
 import uk.gov.hmcts.ccd.sdk.taskmanagement.model.outbox.TaskOutboxRecord;
+import uk.gov.hmcts.ccd.sdk.taskmanagement.model.outbox.TaskOutboxStatus;
+import uk.gov.hmcts.ccd.sdk.taskmanagement.model.request.TaskTerminationRequest;
 import uk.gov.hmcts.ccd.sdk.taskmanagement.search.GetTasksResponse;
 
 class TaskOutboxPollerTest {
@@ -29,15 +40,11 @@ class TaskOutboxPollerTest {
       new ObjectMapper()
   );
 
-  @BeforeEach
-  void setUp() {
-    when(repository.markProcessing(1L)).thenReturn(true);
-  }
-
   @Test
   void marksInitiateProcessedWhenTaskManagementReturnsSuccessfulEmptyResponse() {
     TaskOutboxRecord record = new TaskOutboxRecord(
         1L,
+        1234567890123456L,
         """
             {
               "task": {
@@ -47,14 +54,15 @@ class TaskOutboxPollerTest {
             }
             """,
         TaskAction.INITIATE.getId(),
-        0
+        0,
+        null
     );
-    when(repository.findPending(5, 0)).thenReturn(List.of(record));
+    when(repository.claimPending(5, 0)).thenReturn(List.of(record));
     when(taskManagementApiClient.createTask(any())).thenReturn(ResponseEntity.ok().build());
 
     poller.poll();
 
-    verify(repository).markProcessed(1L, 200);
+    verify(repository).recordOutcomes(List.of(TaskOutboxOutcome.processed(1L, 200)));
     verifyNoMoreInteractionsAfterProcessing();
   }
 
@@ -62,6 +70,7 @@ class TaskOutboxPollerTest {
   void marksReconfigureProcessedWhenTaskManagementReturnsSuccessfulEmptyResponse() {
     TaskOutboxRecord record = new TaskOutboxRecord(
         1L,
+        1234567890123456L,
         """
             {
               "case_id": "1234567890123456",
@@ -70,14 +79,15 @@ class TaskOutboxPollerTest {
             }
             """,
         TaskAction.RECONFIGURE.getId(),
-        0
+        0,
+        null
     );
-    when(repository.findPending(5, 0)).thenReturn(List.of(record));
+    when(repository.claimPending(5, 0)).thenReturn(List.of(record));
     when(taskManagementApiClient.reconfigureTask(any())).thenReturn(ResponseEntity.noContent().build());
 
     poller.poll();
 
-    verify(repository).markProcessed(1L, 204);
+    verify(repository).recordOutcomes(List.of(TaskOutboxOutcome.processed(1L, 204)));
     verifyNoMoreInteractionsAfterProcessing();
   }
 
@@ -85,6 +95,7 @@ class TaskOutboxPollerTest {
   void marksCompleteProcessedWhenNoTasksAreReturnedToTerminate() {
     TaskOutboxRecord record = new TaskOutboxRecord(
         1L,
+        1234567890123456L,
         """
             {
               "case_id": "1234567890123456",
@@ -93,15 +104,16 @@ class TaskOutboxPollerTest {
             }
             """,
         TaskAction.COMPLETE.getId(),
-        0
+        0,
+        null
     );
-    when(repository.findPending(5, 0)).thenReturn(List.of(record));
+    when(repository.claimPending(5, 0)).thenReturn(List.of(record));
     when(taskManagementApiClient.getTasks(eq("1234567890123456"), eq(List.of("registerNewCase"))))
         .thenReturn(ResponseEntity.ok(GetTasksResponse.builder().tasks(List.of()).build()));
 
     poller.poll();
 
-    verify(repository).markProcessed(1L, 200);
+    verify(repository).recordOutcomes(List.of(TaskOutboxOutcome.processed(1L, 200)));
     verifyNoMoreInteractionsAfterProcessing();
   }
 
@@ -109,6 +121,7 @@ class TaskOutboxPollerTest {
   void marksCompleteProcessedWhenTaskSearchReturnsSuccessfulEmptyResponse() {
     TaskOutboxRecord record = new TaskOutboxRecord(
         1L,
+        1234567890123456L,
         """
             {
               "case_id": "1234567890123456",
@@ -117,21 +130,206 @@ class TaskOutboxPollerTest {
             }
             """,
         TaskAction.COMPLETE.getId(),
-        0
+        0,
+        null
     );
-    when(repository.findPending(5, 0)).thenReturn(List.of(record));
+    when(repository.claimPending(5, 0)).thenReturn(List.of(record));
     when(taskManagementApiClient.getTasks(eq("1234567890123456"), eq(List.of("registerNewCase"))))
         .thenReturn(ResponseEntity.ok().build());
 
     poller.poll();
 
-    verify(repository).markProcessed(1L, 200);
+    verify(repository).recordOutcomes(List.of(TaskOutboxOutcome.processed(1L, 200)));
     verifyNoMoreInteractionsAfterProcessing();
   }
 
+  @Test
+  void recordsEveryOutcomeOfTheClaimedBatchTogether() {
+    TaskOutboxRecord created = new TaskOutboxRecord(
+        1L,
+        1234567890123456L,
+        """
+            {
+              "task": {
+                "external_task_id": "task-1",
+                "case_id": "1234567890123456"
+              }
+            }
+            """,
+        TaskAction.INITIATE.getId(),
+        0,
+        null
+    );
+    TaskOutboxRecord rejected = new TaskOutboxRecord(
+        2L,
+        1234567890123457L,
+        """
+            {
+              "case_id": "1234567890123457",
+              "case_type": "E2E",
+              "tasks": []
+            }
+            """,
+        TaskAction.RECONFIGURE.getId(),
+        2,
+        null
+    );
+    when(repository.claimPending(5, 0)).thenReturn(List.of(created, rejected));
+    when(taskManagementApiClient.createTask(any())).thenReturn(ResponseEntity.status(201).build());
+    when(taskManagementApiClient.reconfigureTask(any())).thenReturn(ResponseEntity.status(503).build());
+
+    poller.poll();
+
+    ArgumentCaptor<List<TaskOutboxOutcome>> outcomes = ArgumentCaptor.captor();
+    verify(repository).recordOutcomes(outcomes.capture());
+    assertThat(outcomes.getValue()).satisfiesExactly(
+        outcome -> assertThat(outcome).isEqualTo(TaskOutboxOutcome.processed(1L, 201)),
+        outcome -> {
+          assertThat(outcome.id()).isEqualTo(2L);
+          assertThat(outcome.status()).isEqualTo(TaskOutboxStatus.FAILED);
+          assertThat(outcome.statusCode()).isEqualTo(503);
+          assertThat(outcome.nextAttemptAt()).isNotNull();
+        }
+    );
+    verify(repository).claimPending(5, 0);
+    verifyNoMoreInteractions(repository);
+  }
+
+  @Test
+  void sendsRecordsForDifferentCasesConcurrently() {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    CountDownLatch bothInFlight = new CountDownLatch(2);
+    when(repository.claimPending(5, 0)).thenReturn(List.of(
+        initiate(1L, 1234567890123456L),
+        initiate(2L, 1234567890123457L)
+    ));
+    when(taskManagementApiClient.createTask(any())).thenAnswer(invocation -> {
+      bothInFlight.countDown();
+      return bothInFlight.await(10, TimeUnit.SECONDS)
+          ? ResponseEntity.ok().build()
+          : ResponseEntity.status(504).build();
+    });
+
+    try (TaskOutboxPoller concurrentPoller = new TaskOutboxPoller(
+        repository,
+        taskManagementApiClient,
+        retryPolicy,
+        5,
+        2,
+        false,
+        new ObjectMapper(),
+        meterRegistry
+    )) {
+      concurrentPoller.poll();
+    }
+
+    verify(repository).recordOutcomes(List.of(
+        TaskOutboxOutcome.processed(1L, 200),
+        TaskOutboxOutcome.processed(2L, 200)
+    ));
+    assertThat(meterRegistry.get("ccd.task.outbox.lag").timer().count()).isEqualTo(2);
+    assertThat(meterRegistry.get("ccd.task.outbox.in.flight").gauge().value()).isZero();
+  }
+
+  @Test
+  void drainsUntilAClaimComesBackEmpty() {
+    when(repository.claimPending(5, 0))
+        .thenReturn(List.of(initiate(1L, 1234567890123456L)))
+        .thenReturn(List.of(initiate(2L, 1234567890123456L)))
+        .thenReturn(List.of());
+    when(taskManagementApiClient.createTask(any())).thenReturn(ResponseEntity.ok().build());
+
+    poller.drain();
+
+    verify(repository, times(3)).claimPending(5, 0);
+    verify(repository).recordOutcomes(List.of(TaskOutboxOutcome.processed(1L, 200)));
+    verify(repository).recordOutcomes(List.of(TaskOutboxOutcome.processed(2L, 200)));
+    verify(repository).recordOutcomes(List.of());
+    verifyNoMoreInteractions(repository);
+  }
+
+  @Test
+  void mergesTerminationsForTheSameCaseAndActionIntoOneSearchAndTermination() {
+    when(repository.claimPending(5, 0)).thenReturn(List.of(
+        complete(1L, "registerNewCase"),
+        complete(2L, "reviewApplication"),
+        complete(3L, "registerNewCase")
+    ));
+    when(taskManagementApiClient.getTasks("1234567890123456", List.of("registerNewCase", "reviewApplication")))
+        .thenReturn(ResponseEntity.ok(GetTasksResponse.builder()
+            .tasks(List.of(TaskPayload.builder().id("task-1").build(), TaskPayload.builder().id("task-2").build()))
+            .build()));
+    when(taskManagementApiClient.terminateTask(any())).thenReturn(ResponseEntity.noContent().build());
+
+    poller.poll();
+
+    verify(taskManagementApiClient).getTasks("1234567890123456", List.of("registerNewCase", "reviewApplication"));
+    verify(taskManagementApiClient).terminateTask(TaskTerminationRequest.builder()
+        .action(TaskAction.COMPLETE.getId())
+        .taskIds(List.of("task-1", "task-2"))
+        .build());
+    verifyNoMoreInteractions(taskManagementApiClient);
+    verify(repository).recordOutcomes(List.of(
+        TaskOutboxOutcome.processed(1L, 204),
+        TaskOutboxOutcome.processed(2L, 204),
+        TaskOutboxOutcome.processed(3L, 204)
+    ));
+    verifyNoMoreInteractionsAfterProcessing();
+  }
+
+  @Test
+  void rejectsNonPositiveConcurrency() {
+    assertThatThrownBy(() -> new TaskOutboxPoller(
+        repository,
+        taskManagementApiClient,
+        retryPolicy,
+        5,
+        0,
+        false,
+        new ObjectMapper(),
+        new SimpleMeterRegistry()
+    ))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("task-management.outbox.poller.concurrency must be greater than zero");
+  }
+
+  private static TaskOutboxRecord complete(long id, String taskType) {
+    return new TaskOutboxRecord(
+        id,
+        1234567890123456L,
+        """
+            {
+              "case_id": "1234567890123456",
+              "case_type": "E2E",
+              "task_types": ["%s"]
+            }
+            """.formatted(taskType),
+        TaskAction.COMPLETE.getId(),
+        0,
+        null
+    );
+  }
+
+  private static TaskOutboxRecord initiate(long id, long caseId) {
+    return new TaskOutboxRecord(
+        id,
+        caseId,
+        """
+            {
+              "task": {
+                "external_task_id": "task-%d",
+                "case_id": "%d"
+              }
+            }
+            """.formatted(id, caseId),
+        TaskAction.INITIATE.getId(),
+        0,
+        LocalDateTime.now().minusSeconds(1)
+    );
+  }
+
   private void verifyNoMoreInteractionsAfterProcessing() {
-    verify(repository).findPending(5, 0);
-    verify(repository).markProcessing(1L);
+    verify(repository).claimPending(5, 0);
     verifyNoMoreInteractions(repository);
   }
 }
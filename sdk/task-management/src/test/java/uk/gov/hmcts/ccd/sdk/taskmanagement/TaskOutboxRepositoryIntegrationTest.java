@@ -0,0 +1,196 @@
+package uk.gov.hmcts.ccd.sdk.taskmanagement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import uk.gov.hmcts.ccd.sdk.taskmanagement.model.TaskAction;
+import uk.gov.hmcts.ccd.sdk.taskmanagement.model.outbox.TaskOutboxRecord;
+import uk.gov.hmcts.ccd.sdk.taskmanagement.model.outbox.TaskOutboxStatus;
+
+@Testcontainers
+class TaskOutboxRepositoryIntegrationTest {
+
+  private static final int MAX_ATTEMPTS = 3;
+
+  @Container
+  private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine")
+      .withDatabaseName("ccd");
+
+  private static NamedParameterJdbcTemplate jdbc;
+  private static TransactionTemplate transactions;
+  private static TaskOutboxRepository repository;
+
+  private long nextCaseReference = 1000000000000000L;
+
+  @BeforeAll
+  static void migrate() {
+    var dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+        POSTGRES.getPassword());
+    Properties flywayProperties = new Properties();
+    flywayProperties.setProperty("flyway.postgresql.transactional.lock", "false");
+    Flyway.configure()
+        .configuration(flywayProperties)
+        .dataSource(dataSource)
+        .locations("classpath:dataruntime-db/migration")
+        .schemas("ccd")
+        .load()
+        .migrate();
+    jdbc = new NamedParameterJdbcTemplate(dataSource);
+    transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    repository = new TaskOutboxRepository(jdbc, new TaskManagementProperties());
+  }
+
+  @BeforeEach
+  void clearOutbox() {
+    jdbc.getJdbcTemplate().update("delete from ccd.task_outbox");
+  }
+
+  @Test
+  void holdsBackALaterRecordBehindAnEarlierPendingOrRetryingRecord() {
+    long newCase = seedCase();
+    long earlierNew = insert(newCase, TaskAction.INITIATE, TaskOutboxStatus.NEW, 0, null);
+    insert(newCase, TaskAction.COMPLETE, TaskOutboxStatus.NEW, 0, null);
+
+    long processingCase = seedCase();
+    insert(processingCase, TaskAction.INITIATE, TaskOutboxStatus.PROCESSING, 0, inOneHour());
+    insert(processingCase, TaskAction.COMPLETE, TaskOutboxStatus.NEW, 0, null);
+
+    long failedCase = seedCase();
+    insert(failedCase, TaskAction.INITIATE, TaskOutboxStatus.FAILED, 1, inOneHour());
+    insert(failedCase, TaskAction.COMPLETE, TaskOutboxStatus.NEW, 0, null);
+
+    assertThat(claimedIds(10)).containsExactly(earlierNew);
+  }
+
+  @Test
+  void doesNotHoldBackALaterRecordBehindAScheduledOrExhaustedRecord() {
+    long scheduledCase = seedCase();
+    insert(scheduledCase, TaskAction.INITIATE, TaskOutboxStatus.NEW, 0, inOneHour());
+    long afterScheduled = insert(scheduledCase, TaskAction.COMPLETE, TaskOutboxStatus.NEW, 0, null);
+
+    long exhaustedCase = seedCase();
+    insert(exhaustedCase, TaskAction.INITIATE, TaskOutboxStatus.FAILED, MAX_ATTEMPTS, LocalDateTime.now());
+    long afterExhausted = insert(exhaustedCase, TaskAction.COMPLETE, TaskOutboxStatus.NEW, 0, null);
+
+    assertThat(claimedIds(10)).containsExactly(afterScheduled, afterExhausted);
+  }
+
+  @Test
+  void claimsARunOfTheSameTerminationTogether() {
+    long completedCase = seedCase();
+    long firstComplete = insert(completedCase, TaskAction.COMPLETE, TaskOutboxStatus.NEW, 0, null);
+    long secondComplete = insert(completedCase, TaskAction.COMPLETE, TaskOutboxStatus.NEW, 0, null);
+
+    long cancelledCase = seedCase();
+    long firstCancel = insert(cancelledCase, TaskAction.CANCEL, TaskOutboxStatus.NEW, 0, null);
+    long secondCancel = insert(cancelledCase, TaskAction.CANCEL, TaskOutboxStatus.NEW, 0, null);
+
+    assertThat(claimedIds(10)).containsExactly(firstComplete, secondComplete, firstCancel, secondCancel);
+  }
+
+  @Test
+  void doesNotClaimTerminationsPastADifferentAction() {
+    long interruptedCase = seedCase();
+    long firstComplete = insert(interruptedCase, TaskAction.COMPLETE, TaskOutboxStatus.NEW, 0, null);
+    insert(interruptedCase, TaskAction.INITIATE, TaskOutboxStatus.NEW, 0, null);
+    insert(interruptedCase, TaskAction.COMPLETE, TaskOutboxStatus.NEW, 0, null);
+
+    long mixedCase = seedCase();
+    long complete = insert(mixedCase, TaskAction.COMPLETE, TaskOutboxStatus.NEW, 0, null);
+    insert(mixedCase, TaskAction.CANCEL, TaskOutboxStatus.NEW, 0, null);
+
+    long retryingCase = seedCase();
+    insert(retryingCase, TaskAction.COMPLETE, TaskOutboxStatus.FAILED, 1, inOneHour());
+    insert(retryingCase, TaskAction.COMPLETE, TaskOutboxStatus.NEW, 0, null);
+
+    assertThat(claimedIds(10)).containsExactly(firstComplete, complete);
+  }
+
+  @Test
+  void concurrentClaimsReturnDisjointRecords() throws Exception {
+    List<Long> enqueued = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      enqueued.add(insert(seedCase(), TaskAction.INITIATE, TaskOutboxStatus.NEW, 0, null));
+    }
+
+    List<Long> claimed = new ArrayList<>();
+    transactions.executeWithoutResult(status -> {
+      List<Long> first = ids(repository.claimPending(2, MAX_ATTEMPTS));
+      // Claimed while the first claim's rows are still locked; waiting on them would time out here.
+      List<Long> second = CompletableFuture.supplyAsync(() -> ids(repository.claimPending(2, MAX_ATTEMPTS)))
+          .orTimeout(10, TimeUnit.SECONDS)
+          .join();
+      assertThat(first).doesNotContainAnyElementsOf(second);
+      claimed.addAll(first);
+      claimed.addAll(second);
+    });
+
+    assertThat(claimed).containsExactlyInAnyOrderElementsOf(enqueued);
+  }
+
+  private List<Long> claimedIds(int limit) {
+    return ids(repository.claimPending(limit, MAX_ATTEMPTS));
+  }
+
+  private static List<Long> ids(List<TaskOutboxRecord> records) {
+    return records.stream().map(TaskOutboxRecord::id).toList();
+  }
+
+  private static LocalDateTime inOneHour() {
+    return LocalDateTime.now().plusHours(1);
+  }
+
+  private long seedCase() {
+    long reference = nextCaseReference++;
+    jdbc.update(
+        """
+        insert into ccd.case_data (
+          id, reference, version, jurisdiction, case_type_id, state, data, supplementary_data,
+          security_classification, case_revision
+        ) values (
+          :reference, :reference, 1, 'TEST', 'TestCase', 'Submitted', '{}'::jsonb, '{}'::jsonb, 'PUBLIC', 1
+        )
+        on conflict do nothing
+        """,
+        new MapSqlParameterSource("reference", reference)
+    );
+    return reference;
+  }
+
+  private long insert(long caseReference, TaskAction action, TaskOutboxStatus status, int attemptCount,
+                      LocalDateTime nextAttemptAt) {
+    return jdbc.queryForObject(
+        """
+        insert into ccd.task_outbox (case_id, payload, requested_action, status, attempt_count, next_attempt_at)
+        values (:caseId, '{}'::jsonb, :action::ccd.task_action, :status::ccd.task_outbox_status, :attemptCount,
+          :nextAttemptAt)
+        returning id
+        """,
+        new MapSqlParameterSource()
+            .addValue("caseId", caseReference)
+            .addValue("action", action.getId())
+            .addValue("status", status.name())
+            .addValue("attemptCount", attemptCount)
+            .addValue("nextAttemptAt", nextAttemptAt, Types.TIMESTAMP),
+        Long.class
+    );
+  }
+}
@@ -0,0 +1,51 @@
+package uk.gov.hmcts.ccd.sdk.taskmanagement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class TaskOutboxRetentionTest {
+
+  private final TaskOutboxRepository repository = mock(TaskOutboxRepository.class);
+  private final TaskOutboxRetention retention = new TaskOutboxRetention(repository, Duration.ofDays(30), 100);
+
+  @Test
+  void deletesProcessedRecordsInBatchesUntilABatchComesBackShort() {
+    when(repository.deleteProcessed(any(), eq(100))).thenReturn(100, 100, 42);
+
+    LocalDateTime before = LocalDateTime.now().minusDays(30);
+    retention.purge();
+    LocalDateTime after = LocalDateTime.now().minusDays(30);
+
+    ArgumentCaptor<LocalDateTime> createdBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+    verify(repository, times(3)).deleteProcessed(createdBefore.capture(), eq(100));
+    assertThat(createdBefore.getAllValues()).allSatisfy(cutoff -> assertThat(cutoff).isBetween(before, after));
+    assertThat(createdBefore.getAllValues()).containsOnly(createdBefore.getValue());
+    verifyNoMoreInteractions(repository);
+  }
+
+  @Test
+  void rejectsNonPositiveProcessedAge() {
+    assertThatThrownBy(() -> new TaskOutboxRetention(repository, Duration.ZERO, 100))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("task-management.outbox.retention.processed-age must be greater than zero");
+  }
+
+  @Test
+  void rejectsNonPositiveBatchSize() {
+    assertThatThrownBy(() -> new TaskOutboxRetention(repository, Duration.ofDays(30), 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("task-management.outbox.retention.batch-size must be greater than zero");
+  }
+}